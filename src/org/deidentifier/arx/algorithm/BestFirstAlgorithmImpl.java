@@ -0,0 +1,184 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import org.deidentifier.arx.framework.check.NodeChecker;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.deidentifier.arx.metric.InformationLoss;
+
+import cern.colt.list.LongArrayList;
+
+import com.carrotsearch.hppc.LongOpenHashSet;
+
+/**
+ * A best-first search for the global optimum. Transformations are checked in order of the lower
+ * bounds of their information loss, starting at the bottom of the solution space. The search
+ * terminates as soon as the smallest remaining bound is not smaller than the information loss of
+ * the optimum found, because lower bounds of ARX's metrics do not decrease with generalization.
+ * If no bound is available, a transformation inherits the bound of its predecessor.<br>
+ * <br>
+ * The search does not rely on monotonicity of privacy models and is therefore well suited for
+ * non-monotonic criteria. Its efficiency depends on the tightness of the bounds.
+ *
+ * @author Fabian Prasser
+ */
+public class BestFirstAlgorithmImpl extends AbstractAlgorithm {
+
+    /**
+     * An element of the queue
+     *
+     * @author Fabian Prasser
+     */
+    private static class Entry {
+
+        /** The transformation */
+        private final Transformation     transformation;
+
+        /** Its lower bound, or null */
+        private final InformationLoss<?> bound;
+
+        /**
+         * Creates a new instance
+         *
+         * @param transformation
+         * @param bound
+         */
+        private Entry(Transformation transformation, InformationLoss<?> bound) {
+            this.transformation = transformation;
+            this.bound = bound;
+        }
+    }
+
+    /** Creates instances of this algorithm, see FLASHAlgorithmImpl.ALGORITHM_FACTORY */
+    public static final FLASHAlgorithmImpl.AlgorithmFactory FACTORY = new FLASHAlgorithmImpl.AlgorithmFactory() {
+        @Override
+        public AbstractAlgorithm create(SolutionSpace solutionSpace, NodeChecker checker) {
+            return new BestFirstAlgorithmImpl(solutionSpace, checker);
+        }
+    };
+
+    /** Orders by bound, then by level and identifier. Unknown bounds come first. */
+    private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry o1, Entry o2) {
+            if (o1.bound != o2.bound) {
+                if (o1.bound == null) {
+                    return -1;
+                } else if (o2.bound == null) {
+                    return +1;
+                }
+                int cmp = o1.bound.compareTo(o2.bound);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            int cmp = Integer.compare(o1.transformation.getLevel(), o2.transformation.getLevel());
+            return cmp != 0 ? cmp : Long.compare(o1.transformation.getIdentifier(), o2.transformation.getIdentifier());
+        }
+    };
+
+    /** Number of checked transformations */
+    private long                           checked;
+
+    /**
+     * Creates a new instance
+     *
+     * @param solutionSpace
+     * @param checker
+     */
+    public BestFirstAlgorithmImpl(SolutionSpace solutionSpace, NodeChecker checker) {
+        super(solutionSpace, checker);
+    }
+
+    /**
+     * Returns the number of transformations checked by the last traversal
+     *
+     * @return
+     */
+    public long getNumChecks() {
+        return checked;
+    }
+
+    @Override
+    public void traverse() {
+
+        // Prepare
+        this.checked = 0;
+        PriorityQueue<Entry> queue = new PriorityQueue<Entry>(64, ORDER);
+        LongOpenHashSet visited = new LongOpenHashSet();
+        Transformation bottom = solutionSpace.getBottom();
+        queue.add(new Entry(bottom, getLowerBound(bottom, null)));
+        visited.add(bottom.getIdentifier());
+
+        // Search
+        while (!queue.isEmpty()) {
+
+            // Terminate, if no remaining transformation can be better than the optimum
+            Entry entry = queue.poll();
+            Transformation optimum = getGlobalOptimum();
+            if (optimum != null && entry.bound != null &&
+                optimum.getInformationLoss().compareTo(entry.bound) <= 0) {
+                break;
+            }
+
+            // Check
+            Transformation transformation = entry.transformation;
+            if (!transformation.hasProperty(solutionSpace.getPropertyChecked())) {
+                transformation.setChecked(checker.check(transformation));
+                progress((double) ++checked / (double) solutionSpace.getSize());
+            }
+            trackOptimum(transformation);
+
+            // Expand
+            LongArrayList successors = transformation.getSuccessors();
+            for (int i = 0; i < successors.size(); i++) {
+                long id = successors.getQuick(i);
+                if (visited.add(id)) {
+                    Transformation successor = solutionSpace.getTransformation(id);
+                    queue.add(new Entry(successor, getLowerBound(successor, entry.bound)));
+                }
+            }
+        }
+
+        // Potentially allows to better estimate utility in the lattice
+        computeUtilityForMonotonicMetrics(bottom);
+        computeUtilityForMonotonicMetrics(solutionSpace.getTop());
+    }
+
+    /**
+     * Returns the lower bound of the given transformation, or the given bound of its predecessor
+     *
+     * @param transformation
+     * @param predecessor
+     * @return
+     */
+    private InformationLoss<?> getLowerBound(Transformation transformation, InformationLoss<?> predecessor) {
+        InformationLoss<?> bound = transformation.getLowerBound();
+        if (bound == null) {
+            bound = checker.getMetric().getLowerBound(transformation);
+            if (bound != null) {
+                transformation.setLowerBound(bound);
+            }
+        }
+        return bound != null ? bound : predecessor;
+    }
+}
@@ -17,12 +17,25 @@
 
 package org.deidentifier.arx.algorithm;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.PriorityQueue;
-
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.deidentifier.arx.ARXListener;
 import org.deidentifier.arx.algorithm.FLASHPhaseConfiguration.PhaseAnonymityProperty;
 import org.deidentifier.arx.framework.check.NodeChecker;
 import org.deidentifier.arx.framework.check.groupify.HashGroupify;
@@ -31,13 +44,15 @@ import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
 import org.deidentifier.arx.metric.InformationLoss;
 import org.deidentifier.arx.metric.InformationLossWithBound;
+import org.deidentifier.arx.metric.Metric;
 
 import cern.colt.GenericSorting;
 import cern.colt.Swapper;
 import cern.colt.function.IntComparator;
-import cern.colt.list.LongArrayList;
 
-import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongOpenHashSet;
 
 import de.linearbits.jhpl.JHPLIterator.LongIterator;
 import de.linearbits.jhpl.PredictiveProperty;
@@ -50,28 +65,364 @@ import de.linearbits.jhpl.PredictiveProperty;
  */
 public class FLASHAlgorithmImpl extends AbstractAlgorithm {
 
+    /**
+     * Primitive stack of the depth-first search in the linear phase. Each frame consists of a
+     * transformation and the index of the next successor to visit.
+     *
+     * @author Fabian Prasser
+     */
+    private static class LinearSearchStack {
+
+        /** Transformations */
+        private long[] ids       = new long[16];
+        /** Index of the next successor per transformation */
+        private int[]  positions = new int[16];
+        /** Number of frames */
+        private int    size      = 0;
+
+        /**
+         * Returns whether the stack is empty
+         * @return
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Returns the index of the next successor of the top frame and advances it
+         * @return
+         */
+        int next() {
+            return positions[size - 1]++;
+        }
+
+        /**
+         * Returns the transformation of the top frame
+         * @return
+         */
+        long peek() {
+            return ids[size - 1];
+        }
+
+        /**
+         * Removes the top frame
+         */
+        void pop() {
+            size--;
+        }
+
+        /**
+         * Adds a frame
+         * @param id
+         */
+        void push(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+                positions = Arrays.copyOf(positions, size << 1);
+            }
+            ids[size] = id;
+            positions[size] = 0;
+            size++;
+        }
+
+        /**
+         * Returns the number of frames
+         * @return
+         */
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A speculative check of a midpoint in the binary phase
+     *
+     * @author Fabian Prasser
+     */
+    private static class Speculation {
+
+        /** Index on the path */
+        private int                        index;
+        /** The transformation */
+        private long                       id;
+        /** The checker */
+        private NodeChecker                checker;
+        /** The result */
+        private Future<NodeChecker.Result> future;
+        /** Duration of the check in nanoseconds */
+        private volatile long              time;
+        /** Whether the result will not be used */
+        private volatile boolean           cancelled;
+    }
+
+    /**
+     * State shared by the workers while processing one level in parallel mode
+     *
+     * @author Fabian Prasser
+     */
+    private static class ParallelState {
+
+        /** Unprocessed nodes of the level */
+        private long[]                 nodes;
+        /** Next node of the level */
+        private int                    next   = 0;
+        /** Queue of the binary phase */
+        private FLASHQueue             queue;
+        /** Number of workers currently processing a node */
+        private int                    busy   = 0;
+        /** Whether a worker has failed */
+        private boolean                failed = false;
+        /** Nodes of the level or the queue which have been claimed by other workers when taken */
+        private final LongArrayList    deferred = new LongArrayList();
+    }
+
+    /**
+     * Creates an algorithm which searches the solution space instead of the outer loop of FLASH,
+     * see ALGORITHM_FACTORY
+     *
+     * @author Fabian Prasser
+     */
+    public static interface AlgorithmFactory {
+
+        /**
+         * Creates an algorithm for the given solution space and checker
+         *
+         * @param solutionSpace
+         * @param checker
+         * @return
+         */
+        public AbstractAlgorithm create(SolutionSpace solutionSpace, NodeChecker checker);
+    }
+
+    /**
+     * Creates the checkers of additional workers, see THREADS
+     *
+     * @author Fabian Prasser
+     */
+    public static interface CheckerFactory {
+
+        /**
+         * Creates a checker for the same problem as the given one, which does not share
+         * groupify or history instances with it
+         *
+         * @param checker
+         * @return
+         */
+        public NodeChecker create(NodeChecker checker);
+    }
+
     /** Configuration for the algorithm's phases. */
     protected final FLASHConfiguration config;
 
-    /** Are the pointers for a node with id 'index' already sorted?. */
-    private final int[][]              sortedSuccessors;
+    /** The successors of all nodes, sorted according to the strategy. */
+    private final FLASHSuccessors      sortedSuccessors;
 
-    /** The strategy. */
-    private final FLASHStrategy        strategy;
+    /** The strategy's order as primitive keys */
+    private final FLASHStrategyKeys    keys;
 
     /**
      * List of nodes that may be used for pruning transformations with
      * insufficient utility.
      */
-    private final List<Integer>        potentiallyInsufficientUtility;
+    private final FLASHPruningCandidates potentiallyInsufficientUtility;
 
     /** The number of checked transformations */
-    private int                        checked         = 0;
+    private long                       checked         = 0;
+
+    /** One checker per worker. The first one is the checker of the algorithm */
+    private final NodeChecker[]        checkers;
+
+    /** The checker used by the current worker thread */
+    private final ThreadLocal<NodeChecker> worker      = new ThreadLocal<NodeChecker>();
+
+    /**
+     * Guards the solution space, the queue and all other state of the traversal in parallel mode.
+     * Workers hold the write lock while traversing. They claim a transformation and release the
+     * lock while checking it. Speculative checks hold the read lock.
+     */
+    private final ReentrantReadWriteLock lock          = new ReentrantReadWriteLock();
+
+    /** Transformations which are being checked by a worker, guarded by the write lock */
+    private final LongOpenHashSet      claimed         = new LongOpenHashSet();
+
+    /** Signalled when a claim is released or the work of a level changes */
+    private final Condition            available;
 
     public static boolean              USE_LOWER_BOUND = true;
 
+    /** Whether skip() decides on primitive lower bounds, which are computed in batches per level */
+    public static boolean              USE_LOWER_BOUND_CACHE = true;
+
+    /** Primitive lower bounds, if USE_LOWER_BOUND_CACHE is set */
+    private final FLASHLowerBounds     lowerBounds;
+
+    /** The metrics of all checkers */
+    private final Metric<?>[]          metrics;
+
+    /** The optimum for which the primitive information loss is known */
+    private Transformation             optimum;
+
+    /** Primitive information loss of the optimum */
+    private double                     optimumValue;
+
+    /** File to which checkpoints are written and from which traversals are resumed. Null disables checkpoints. */
+    public static File                 CHECKPOINT_FILE     = null;
+
+    /**
+     * Maximal depth of the stack of the linear phase. Transformations which would exceed it are deferred
+     * and processed in level order, once the stack is empty.
+     */
+    public static int                  LINEAR_PHASE_MAX_DEPTH = 4096;
+
+    /**
+     * Time limit of a traversal in milliseconds. If a limit is set, FLASH processes the transformations
+     * of a level in order of their lower bounds and terminates with the best transformation found so far.
+     */
+    public static long                 TIME_LIMIT          = Long.MAX_VALUE;
+
+    /** Limit on the number of checked transformations, see TIME_LIMIT */
+    public static long                 CHECK_LIMIT         = Long.MAX_VALUE;
+
+    /**
+     * Whether the two possible next midpoints of the binary phase are checked speculatively while the current
+     * midpoint is checked. Requires at least three checkers, see THREADS.
+     */
+    public static boolean              SPECULATIVE_CHECKS  = false;
+
+    /** Minimal time between two checkpoints in milliseconds */
+    public static long                 CHECKPOINT_INTERVAL = 10L * 60L * 1000L;
+
+    /**
+     * Directory in which the frontier and the optimum of complete traversals are stored. Traversals of
+     * the same problem check the stored transformations first. Null disables the store.
+     */
+    public static File                 KNOWLEDGE_DIRECTORY = null;
+
+    /**
+     * Number of partitions of a distributed traversal. Partitions are defined by the generalization levels
+     * of PARTITION_ATTRIBUTES, whose combinations are assigned to partitions round-robin to balance the load.
+     * A partition is therefore a union of sublattices, not a lattice itself. Each process checks the
+     * transformations of the partition PARTITION_INDEX, but enumerates all levels of the solution space and
+     * skips the transformations of other partitions, which are remembered in bit sets, see USE_BIT_SETS.
+     * Only checks are distributed. The optimum is the best of all partitions.
+     */
+    public static int                  PARTITION_COUNT      = 1;
+
+    /** The partition traversed by this process, see PARTITION_COUNT */
+    public static int                  PARTITION_INDEX      = 0;
+
+    /** Indices of the quasi-identifiers whose generalization levels define the partitions */
+    public static int[]                PARTITION_ATTRIBUTES = new int[] { 0 };
+
+    /** Local port of the FLASHCoordinator of a distributed traversal. Negative values disable coordination. */
+    public static int                  COORDINATOR_PORT     = -1;
+
+    /** File to which the events of traversals are logged, see FLASHEventLog. Null disables the log. */
+    public static File                 EVENT_LOG_FILE       = null;
+
+    /**
+     * Whether decisions of skip() are remembered in bit sets. All reasons for skipping a transformation
+     * are properties which are never removed during a traversal, so a transformation which has been
+     * skipped once is skipped again, and scans do not need to create a Transformation for it.
+     */
+    public static boolean              USE_BIT_SETS         = true;
+
+    /**
+     * Number of workers of a traversal. Each additional worker needs its own checker, which is created by
+     * CHECKER_FACTORY from the checker of the algorithm. With SPECULATIVE_CHECKS and at least three workers,
+     * the additional checkers are used for speculative checks in the binary phase instead.
+     */
+    public static int                  THREADS              = 1;
+
+    /**
+     * Creates the checkers of additional workers. Checkers depend on the data manager of the anonymizer,
+     * so this must be provided by the caller if THREADS is larger than one.
+     */
+    public static CheckerFactory       CHECKER_FACTORY      = null;
+
+    /**
+     * Creates the algorithm which searches the solution space instead of FLASH, e.g.
+     * BestFirstAlgorithmImpl.FACTORY. Null selects FLASH.
+     */
+    public static AlgorithmFactory     ALGORITHM_FACTORY    = null;
+
+    /** Listener for detailed progress information, see FLASHProgressTracker. Null disables tracking. */
+    public static FLASHProgress.Listener PROGRESS_LISTENER  = null;
+
+    /** The properties of transformations which are stored in checkpoints */
+    private final PredictiveProperty[] properties;
+
+    /** The checkpoint file of the current traversal */
+    private File                       checkpointFile;
+
+    /** Time at which the last checkpoint was written */
+    private long                       checkpointTime;
+
+    /** Signature of the problem, if checkpoints or the knowledge store are enabled */
+    private String                     signature;
+
+    /** Transformations modified by the current traversal, if checkpoints or the knowledge store are enabled */
+    private LongOpenHashSet            modified;
+
+    /** Number of generalization levels of each partition attribute, or null if the traversal is not partitioned */
+    private int[]                      partitionLevels;
+
+    /** Connection to the coordinator, if any */
+    private FLASHCoordinator.Client    coordinator;
+
+    /** Information loss of the best optimum of all partitions, or NaN */
+    private double                     sharedOptimum;
+
+    /** Information loss of the optimum of this partition published last, or NaN */
+    private double                     publishedOptimum;
+
+    /** The snapshot histories of all checkers, see FLASHHistory */
+    private final Map<NodeChecker, FLASHHistory> histories = new IdentityHashMap<NodeChecker, FLASHHistory>();
+
+    /** Transformations skipped by the trigger of the binary phase, or null */
+    private FLASHBitSet                skippedBinary;
+
+    /** Transformations skipped by the trigger of the linear phase, or null */
+    private FLASHBitSet                skippedLinear;
+
+    /** Transformations tagged with insufficient utility by this traversal, or null */
+    private FLASHBitSet                insufficientUtility;
+
+    /** The event log of the current traversal, if any */
+    private FLASHEventLog              log;
+
+    /** The phase of the current action, for the event log */
+    private byte                       phase;
+
+    /** The queue of the current traversal or level, for the event log */
+    private FLASHQueue                 queue;
+
+    /** Progress of the current traversal, if a listener is registered */
+    private FLASHProgressTracker       tracker;
+
+    /** The current level of the outer loop */
+    private int                        level;
+
+    /** Start of the current traversal */
+    private long                       startTime;
+
+    /** Whether the current traversal has been terminated by a limit */
+    private boolean                    terminated;
+
+    /** Executor for speculative checks, if enabled */
+    private ExecutorService            speculator;
+
+    /** Checkers which are available for speculative checks */
+    private final ArrayDeque<NodeChecker> speculators   = new ArrayDeque<NodeChecker>();
+
+    /** Speculative check of the transformation which is checked next, if any */
+    private Speculation                speculation;
+
+    /** Discarded speculative checks which may still be running */
+    private final List<Speculation>    discarded     = new ArrayList<Speculation>();
+
     /**
-     * Creates a new instance.
+     * Creates a new instance, with THREADS workers.
      *
      * @param solutionSpace
      * @param checker
@@ -82,18 +433,48 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
                               NodeChecker checker,
                               FLASHStrategy strategy,
                               FLASHConfiguration config) {
+        this(solutionSpace, getCheckers(checker, THREADS), strategy, config);
+    }
 
-        super(solutionSpace, checker);
-        if (solutionSpace.getSize() > Integer.MAX_VALUE) {
-            throw new IllegalArgumentException();
-        }
+    /**
+     * Creates a new instance which checks transformations in parallel, with one worker
+     * per checker. Checkers must not share groupify or history instances.
+     *
+     * @param solutionSpace
+     * @param checkers
+     * @param strategy
+     * @param config
+     */
+    public FLASHAlgorithmImpl(SolutionSpace solutionSpace,
+                              NodeChecker[] checkers,
+                              FLASHStrategy strategy,
+                              FLASHConfiguration config) {
+
+        super(solutionSpace, checkers[0]);
+        this.checkers = checkers;
+        this.available = lock.writeLock().newCondition();
         this.checked = 0;
         this.solutionSpace.setAnonymityPropertyPredictable(config.isAnonymityPropertyPredicable());
-        this.strategy = strategy;
-        this.sortedSuccessors = new int[(int)solutionSpace.getSize()][];
+        this.keys = new FLASHStrategyKeys(solutionSpace, strategy);
+        this.sortedSuccessors = new FLASHSuccessors(solutionSpace, keys, Runtime.getRuntime().availableProcessors());
         this.config = config;
         this.potentiallyInsufficientUtility = this.config.isPruneInsufficientUtility() ? 
-                                              new LinkedList<Integer>() : null;
+                                              new FLASHPruningCandidates() : null;
+        this.lowerBounds = USE_LOWER_BOUND_CACHE ? new FLASHLowerBounds(solutionSpace) : null;
+        this.metrics = new Metric<?>[checkers.length];
+        for (int i = 0; i < checkers.length; i++) {
+            this.metrics[i] = checkers[i].getMetric();
+        }
+        this.properties = new PredictiveProperty[] { solutionSpace.getPropertyAnonymous(),
+                                                     solutionSpace.getPropertyNotAnonymous(),
+                                                     solutionSpace.getPropertyKAnonymous(),
+                                                     solutionSpace.getPropertyNotKAnonymous(),
+                                                     solutionSpace.getPropertyChecked(),
+                                                     solutionSpace.getPropertyForceSnapshot(),
+                                                     solutionSpace.getPropertyInsufficientUtility(),
+                                                     solutionSpace.getPropertySuccessorsPruned(),
+                                                     solutionSpace.getPropertyVisited(),
+                                                     solutionSpace.getPropertyExpanded() };
     }
 
     @Override
@@ -108,29 +489,187 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
         }
 
         // Set some triggers
-        checker.getHistory().setStorageStrategy(config.getSnapshotStorageStrategy());
+        histories.clear();
+        for (NodeChecker checker : checkers) {
+            histories.put(checker, new FLASHHistory(checker, solutionSpace, config.getSnapshotStorageStrategy()));
+        }
+
+        // Progress
+        final FLASHProgressTracker tracker = PROGRESS_LISTENER == null ? null :
+                                             new FLASHProgressTracker(PROGRESS_LISTENER, solutionSpace.getSize());
+        this.tracker = tracker;
+
+        // Another algorithm instead of the outer loop
+        if (ALGORITHM_FACTORY != null) {
+            final long size = solutionSpace.getSize();
+            AbstractAlgorithm algorithm = ALGORITHM_FACTORY.create(solutionSpace, checker);
+            algorithm.setListener(new ARXListener() {
+                @Override
+                public void progress(double progress) {
+                    FLASHAlgorithmImpl.this.progress(progress);
+                    checked = Math.round(progress * (double) size);
+                    if (tracker != null) {
+                        tracker.check(checked, -1, FLASHProgress.PHASE_ALGORITHM);
+                    }
+                }
+            });
+            algorithm.traverse();
+            if (algorithm.getGlobalOptimum() != null) {
+                trackOptimum(algorithm.getGlobalOptimum());
+            }
+            if (tracker != null) {
+                tracker.finish();
+                this.tracker = null;
+            }
+            return;
+        }
 
         // Initialize
-        PriorityQueue<Integer> queue = new PriorityQueue<Integer>(solutionSpace.getTop().getLevel() + 1, strategy);
+        this.startTime = System.currentTimeMillis();
+        this.terminated = false;
+        this.partitionLevels = null;
+        this.coordinator = null;
+        this.sharedOptimum = Double.NaN;
+        this.publishedOptimum = Double.NaN;
+        if (PARTITION_COUNT > 1) {
+            this.partitionLevels = new int[PARTITION_ATTRIBUTES.length];
+            for (int i = 0; i < PARTITION_ATTRIBUTES.length; i++) {
+                this.partitionLevels[i] = solutionSpace.getTop().getGeneralization()[PARTITION_ATTRIBUTES[i]] + 1;
+            }
+        }
+        if (COORDINATOR_PORT >= 0) {
+            try {
+                this.coordinator = new FLASHCoordinator.Client(COORDINATOR_PORT);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        FLASHQueue queue = new FLASHQueue(keys, solutionSpace.getTop().getLevel() + 1);
+        this.queue = queue;
+        this.skippedBinary = null;
+        this.skippedLinear = null;
+        this.insufficientUtility = null;
+        if (USE_BIT_SETS && solutionSpace.getSize() <= FLASHBitSet.MAX_SIZE) {
+            this.skippedBinary = new FLASHBitSet(solutionSpace.getSize());
+            this.skippedLinear = new FLASHBitSet(solutionSpace.getSize());
+            this.insufficientUtility = new FLASHBitSet(solutionSpace.getSize());
+        }
+        this.log = null;
+        if (EVENT_LOG_FILE != null) {
+            try {
+                this.log = new FLASHEventLog(EVENT_LOG_FILE);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
         Transformation bottom = solutionSpace.getBottom();
         Transformation top = solutionSpace.getTop();
 
         // Check bottom for speed and remember the result to prevent repeated checks
-        NodeChecker.Result result = checker.check(bottom);
+        NodeChecker.Result result = check(checker, bottom);
         bottom.setProperty(solutionSpace.getPropertyForceSnapshot());
         bottom.setData(result);
         progress((double)++checked / (double)solutionSpace.getSize());
+        track(bottom);
+
+        // Resume from a checkpoint
+        int start = bottom.getLevel();
+        boolean resumed = false;
+        File knowledgeDirectory = KNOWLEDGE_DIRECTORY;
+        this.checkpointFile = CHECKPOINT_FILE;
+        this.modified = null;
+        this.signature = null;
+        if (checkpointFile != null || knowledgeDirectory != null) {
+            this.modified = new LongOpenHashSet();
+            modified(bottom);
+            this.signature = FLASHKnowledge.getSignature(solutionSpace, checker);
+            if (partitionLevels != null) {
+                signature += ", partition: " + PARTITION_INDEX + " of " + PARTITION_COUNT + " by " + Arrays.toString(PARTITION_ATTRIBUTES);
+            }
+        }
+        if (checkpointFile != null) {
+            this.checkpointTime = System.currentTimeMillis();
+            if (checkpointFile.exists()) {
+                start = resume(queue);
+                resumed = true;
+            }
+        }
+
+        // Warm start from the knowledge of a previous traversal
+        if (knowledgeDirectory != null) {
+            if (!resumed) {
+                try {
+                    FLASHKnowledge knowledge = FLASHKnowledge.read(knowledgeDirectory, signature);
+                    if (knowledge != null) {
+                        seed(knowledge, outerLoopConfiguration);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+
+        // Additional checkers are used for speculative checks or for parallel traversal
+        if (SPECULATIVE_CHECKS && checkers.length < 3) {
+            throw new IllegalStateException("Speculative checks require at least three checkers, see THREADS");
+        }
+        boolean speculative = SPECULATIVE_CHECKS && config.isBinaryPhaseRequired();
 
         // For each node in the lattice
-        for (int level = bottom.getLevel(); level <= top.getLevel(); level++) {
-            for (int id : getSortedUnprocessedNodes(level, outerLoopConfiguration.getTriggerSkip())) {
+        if (checkers.length > 1 && !speculative) {
+            traverseParallel(start, top.getLevel(), outerLoopConfiguration.getTriggerSkip(), queue);
+        } else {
 
-                // Run the correct phase
-                Transformation transformation = solutionSpace.getTransformation(id);
+            // Speculative checks are executed in the background while holding the read lock
+            if (speculative) {
+                speculator = Executors.newFixedThreadPool(checkers.length - 1);
+                for (int i = 1; i < checkers.length; i++) {
+                    speculators.add(checkers[i]);
+                }
+                lock.writeLock().lock();
+            }
+
+            try {
+                
+                // Process the queue of a resumed traversal
+                level = start;
                 if (config.isBinaryPhaseRequired()) {
-                    binarySearch(transformation, queue);
-                } else {
-                    linearSearch(transformation);
+                    binarySearch(queue);
+                }
+                
+                for (level = start; level <= top.getLevel() && !isTerminated(); level++) {
+                    for (long id : getSortedUnprocessedNodes(level, outerLoopConfiguration.getTriggerSkip())) {
+    
+                        // Limits
+                        if (isTerminated()) {
+                            break;
+                        }
+    
+                        // Checkpoint
+                        checkpoint(queue);
+    
+                        // Run the correct phase
+                        Transformation transformation = solutionSpace.getTransformation(id);
+                        if (config.isBinaryPhaseRequired()) {
+                            binarySearch(transformation, queue);
+                        } else {
+                            linearSearch(transformation);
+                        }
+                    }
+                }
+            } finally {
+                if (speculative) {
+                    lock.writeLock().unlock();
+                    speculator.shutdownNow();
+                    try {
+                        speculator.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    speculator = null;
+                    speculation = null;
+                    speculators.clear();
+                    discarded.clear();
                 }
             }
         }
@@ -142,10 +681,62 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
         // Remove the associated result information to leave the lattice in a consistent state
         bottom.setData(null);
 
+        // Result with respect to limits
+        Transformation optimalTransformation = getGlobalOptimum();
+        long minimal = potentiallyInsufficientUtility != null ? potentiallyInsufficientUtility.getMinimalIdentifier() : -1L;
+        InformationLoss<?> bound = minimal != -1L ? solutionSpace.getTransformation(minimal).getLowerBound() : null;
+        FLASHAnytimeResult.setLast(new FLASHAnytimeResult(terminated,
+                                                          optimalTransformation != null ? optimalTransformation.getInformationLoss() : null,
+                                                          bound != null ? bound : bottom.getLowerBound(),
+                                                          checked,
+                                                          System.currentTimeMillis() - startTime));
+
         // Clear list of pruning candidates
         if (potentiallyInsufficientUtility != null) {
         	potentiallyInsufficientUtility.clear();
         }
+
+        // Store the knowledge of a complete traversal
+        if (knowledgeDirectory != null && !terminated) {
+            try {
+                learn(signature).write(knowledgeDirectory);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        // The traversal is complete
+        if (checkpointFile != null) {
+            checkpointFile.delete();
+        }
+        modified = null;
+        if (lowerBounds != null) {
+            lowerBounds.shutdown();
+        }
+        if (coordinator != null) {
+            try {
+                coordinator.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+            coordinator = null;
+        }
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            log = null;
+        }
+        if (tracker != null) {
+            tracker.finish();
+            this.tracker = null;
+        }
+        this.queue = null;
+        this.skippedBinary = null;
+        this.skippedLinear = null;
+        this.insufficientUtility = null;
     }
 
     /**
@@ -154,201 +745,1012 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
      * @param transformation
      * @param queue
      */
-    private void binarySearch(Transformation transformation, PriorityQueue<Integer> queue) {
+    private void binarySearch(Transformation transformation, FLASHQueue queue) {
+
+        // Add to queue
+        queue.add(transformation.getIdentifier());
+
+        // Process
+        binarySearch(queue);
+    }
+
+    /**
+     * Processes the queue of the binary phase until it is empty
+     *
+     * @param queue
+     */
+    private void binarySearch(FLASHQueue queue) {
 
         // Obtain node action
         DependentAction triggerSkip = config.getBinaryPhaseConfiguration().getTriggerSkip();
 
-        // Add to queue
-        queue.add((int)transformation.getIdentifier());
-
         // While queue is not empty
-        while (!queue.isEmpty()) {
+        while (!queue.isEmpty() && !isTerminated()) {
+
+            // Checkpoint
+            checkpoint(queue);
 
             // Remove head and process
-            transformation = solutionSpace.getTransformation(queue.poll());
-            if (!skip(triggerSkip, transformation)) {
+            binarySearchStep(solutionSpace.getTransformation(queue.poll()), triggerSkip, queue);
+        }
+    }
+
+    /**
+     * Processes one element of the queue of the binary phase
+     *
+     * @param transformation
+     * @param triggerSkip
+     * @param queue
+     */
+    private void binarySearchStep(Transformation transformation, DependentAction triggerSkip, FLASHQueue queue) {
+        
+        if (!skip(triggerSkip, transformation)) {
 
-                // First phase
-                List<Transformation> path = findPath(transformation, triggerSkip);
-                transformation = checkPath(path, triggerSkip, queue);
+            // First phase
+            List<Transformation> path = findPath(transformation, triggerSkip);
+            transformation = checkPath(path, triggerSkip, queue);
 
-                // Second phase
-                if (config.isLinearPhaseRequired() && (transformation != null)) {
+            // Second phase
+            if (config.isLinearPhaseRequired() && (transformation != null)) {
 
-                    // Run linear search on head
-                    linearSearch(transformation);
-                }
+                // Run linear search on head
+                linearSearch(transformation);
             }
         }
     }
 
     /**
-     * Checks and tags the given transformation.
+     * Checks the given transformation with the checker of the current worker. In parallel mode,
+     * the caller holds the write lock. The transformation is claimed, so that no other worker
+     * checks it, and the lock is released during the check, so that other workers may proceed.
      *
      * @param transformation
-     * @param configuration
+     * @return
      */
-    private void checkAndTag(Transformation transformation, FLASHPhaseConfiguration configuration) {
+    private NodeChecker.Result check(Transformation transformation) {
+
+        // Result of a speculative check
+        if (speculation != null && !speculation.cancelled && speculation.id == transformation.getIdentifier()) {
+            Speculation current = speculation;
+            speculation = null;
+            NodeChecker.Result result = await(current);
+            FLASHSpeculation.addUsed();
+            return result;
+        }
 
-        // Check or evaluate
-        if (configuration.getTriggerEvaluate().appliesTo(transformation)) {
-            InformationLossWithBound<?> loss = checker.getMetric().getInformationLoss(transformation, (HashGroupify)null);
-            transformation.setInformationLoss(loss.getInformationLoss());
-            transformation.setLowerBound(loss.getLowerBound());
-            if (loss.getLowerBound() == null) {
-                transformation.setLowerBound(checker.getMetric().getLowerBound(transformation));
+        // Sequential
+        if (!lock.isWriteLockedByCurrentThread()) {
+            return check(checker, transformation);
+        }
+
+        // Parallel or speculative
+        NodeChecker current = getChecker();
+        long id = transformation.getIdentifier();
+        claimed.add(id);
+        lock.writeLock().unlock();
+        try {
+            return check(current, transformation);
+        } finally {
+            lock.writeLock().lock();
+            claimed.remove(id);
+            available.signalAll();
+        }
+    }
+
+    /**
+     * Waits for the result of a speculative check. The write lock is downgraded while waiting, so that
+     * the check can proceed. The checker becomes available for further speculative checks.
+     *
+     * @param speculation
+     * @return
+     */
+    private NodeChecker.Result await(Speculation speculation) {
+        lock.readLock().lock();
+        lock.writeLock().unlock();
+        try {
+            return speculation.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
-        } else if (configuration.getTriggerCheck().appliesTo(transformation)) {
-            transformation.setChecked(checker.check(transformation));
-            progress((double)++checked / (double)solutionSpace.getSize());
+            throw new RuntimeException(e.getCause());
+        } finally {
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            speculators.add(speculation.checker);
         }
+    }
 
-        // Store optimum
-        trackOptimum(transformation);
+    /**
+     * Discards a speculative check, which may be null. A check which is running is not waited for.
+     * It is marked as cancelled, so that its result is never used, and its checker becomes available
+     * again when it is done, see reclaim().
+     *
+     * @param speculation
+     */
+    private void discard(Speculation speculation) {
+        if (speculation == null) {
+            return;
+        }
+        speculation.cancelled = true;
+        if (speculation.future.cancel(false)) {
+            speculators.add(speculation.checker);
+            FLASHSpeculation.addCancelled();
+        } else {
+            discarded.add(speculation);
+        }
+    }
 
-        // Tag
-        configuration.getTriggerTag().apply(transformation);
+    /**
+     * Makes the checkers of discarded speculative checks which are done available again
+     */
+    private void reclaim() {
+        for (Iterator<Speculation> iter = discarded.iterator(); iter.hasNext();) {
+            Speculation speculation = iter.next();
+            if (speculation.future.isDone()) {
+                speculators.add(speculation.checker);
+                FLASHSpeculation.addWasted(speculation.time);
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Speculatively checks the midpoint of the given range of the path in the background, if a
+     * checker is available and the midpoint is not skipped
+     *
+     * @param path
+     * @param low
+     * @param high
+     * @param triggerSkip
+     * @return The speculation or null
+     */
+    private Speculation speculate(List<Transformation> path, int low, int high, DependentAction triggerSkip) {
+
+        // Check
+        reclaim();
+        if (low > high || speculators.isEmpty()) {
+            return null;
+        }
+        final int mid = (low + high) / 2;
+        final Transformation transformation = path.get(mid);
+        if (skip(triggerSkip, transformation)) {
+            return null;
+        }
+
+        // Submit
+        final Speculation result = new Speculation();
+        result.index = mid;
+        result.id = transformation.getIdentifier();
+        result.checker = speculators.poll();
+        result.future = speculator.submit(new Callable<NodeChecker.Result>() {
+            @Override
+            public NodeChecker.Result call() throws Exception {
+                lock.readLock().lock();
+                try {
+                    if (result.cancelled) {
+                        return null;
+                    }
+                    long time = System.nanoTime();
+                    NodeChecker.Result check = check(result.checker, transformation);
+                    result.time = System.nanoTime() - time;
+                    FLASHSpeculation.addTime(result.time);
+                    return check;
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+        });
+        FLASHSpeculation.addSubmitted();
+        return result;
+    }
+
+    /**
+     * Traverses the solution space with one worker per checker. Per level, the unprocessed nodes
+     * are shared by all workers and so is the queue of the binary phase. A worker takes entries from
+     * the queue first and from the level otherwise, which resembles the order of sequential FLASH.
+     * Predictive tagging and pruning are performed while holding the lock, only checks are executed
+     * concurrently. Checkpoints are written between levels.
+     *
+     * @param bottom
+     * @param top
+     * @param triggerSkip
+     * @param queue The queue of the first level, which contains entries if a traversal has been resumed
+     */
+    private void traverseParallel(int bottom, int top, final DependentAction triggerSkip, FLASHQueue queue) {
+
+        ExecutorService executor = Executors.newFixedThreadPool(checkers.length);
+        try {
+            for (level = bottom; level <= top && !isTerminated(); level++) {
+
+                // Prepare
+                final ParallelState state = new ParallelState();
+                lock.writeLock().lock();
+                try {
+                    state.queue = level == bottom ? queue : new FLASHQueue(keys, top + 1);
+                    this.queue = state.queue;
+                    checkpoint(state.queue);
+                    state.nodes = getSortedUnprocessedNodes(level, triggerSkip);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                // Nothing to do
+                if (state.nodes.length == 0 && state.queue.isEmpty()) {
+                    continue;
+                }
+
+                // Start workers
+                List<Future<Void>> futures = new ArrayList<Future<Void>>();
+                for (final NodeChecker checker : checkers) {
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            worker.set(checker);
+                            try {
+                                runWorker(state);
+                            } finally {
+                                worker.remove();
+                            }
+                            return null;
+                        }
+                    }));
+                }
+
+                // Wait for this level
+                for (Future<Void> future : futures) {
+                    try {
+                        future.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof RuntimeException) {
+                            throw (RuntimeException) e.getCause();
+                        }
+                        throw new RuntimeException(e.getCause());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Work loop of a worker in parallel mode
+     *
+     * @param state
+     * @throws InterruptedException 
+     */
+    private void runWorker(ParallelState state) throws InterruptedException {
+
+        lock.writeLock().lock();
+        try {
+            while (true) {
+
+                // Termination
+                if (state.failed || isTerminated()) {
+                    available.signalAll();
+                    return;
+                }
+
+                // Take from queue first, and from the level otherwise. Nodes which are being checked
+                // by other workers are skipped and processed once their check is done.
+                long id = -1L;
+                boolean start = false;
+                if (!state.queue.isEmpty()) {
+                    id = state.queue.poll();
+                } else if (state.next < state.nodes.length) {
+                    id = state.nodes[state.next++];
+                    start = true;
+                } else {
+                    id = pollReleased(state.deferred);
+                    start = true;
+                }
+                if (id != -1L && claimed.contains(id)) {
+                    state.deferred.add(id);
+                    continue;
+                }
+                if (id == -1L) {
+                    if (state.busy == 0 && state.deferred.isEmpty()) {
+                        available.signalAll();
+                        return;
+                    }
+                    // Other workers may still add nodes to the queue or release claims
+                    available.await();
+                    continue;
+                }
+                Transformation transformation = solutionSpace.getTransformation(id);
+
+                // Process
+                state.busy++;
+                try {
+                    if (config.isBinaryPhaseRequired()) {
+                        binarySearchStep(transformation, config.getBinaryPhaseConfiguration().getTriggerSkip(), state.queue);
+                    } else if (start) {
+                        linearSearch(transformation);
+                    }
+                } catch (RuntimeException | Error e) {
+                    state.failed = true;
+                    throw e;
+                } finally {
+                    state.busy--;
+                    available.signalAll();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a checkpoint, if checkpoints are enabled and the interval has passed. Must be called
+     * at a point at which the traversal can be resumed with the given queue and the current level.
+     *
+     * @param queue
+     */
+    private void checkpoint(FLASHQueue queue) {
+
+        // Check
+        if (checkpointFile == null || System.currentTimeMillis() - checkpointTime < CHECKPOINT_INTERVAL) {
+            return;
+        }
+
+        // Traversal
+        FLASHCheckpoint checkpoint = new FLASHCheckpoint(signature);
+        checkpoint.level = level;
+        checkpoint.queue = queue.toArray();
+        checkpoint.checked = checked;
+        Transformation optimum = getGlobalOptimum();
+        checkpoint.optimum = optimum == null ? -1L : optimum.getIdentifier();
+
+        // Pruning candidates
+        if (potentiallyInsufficientUtility != null) {
+            checkpoint.candidates = potentiallyInsufficientUtility.getIdentifiers();
+            checkpoint.candidateBounds = potentiallyInsufficientUtility.getBounds();
+        } else {
+            checkpoint.candidates = new long[0];
+            checkpoint.candidateBounds = new double[0];
+        }
+
+        // Transformations
+        int size = modified.size();
+        checkpoint.ids = new long[size];
+        checkpoint.properties = new int[size];
+        checkpoint.losses = new InformationLoss<?>[size];
+        checkpoint.bounds = new InformationLoss<?>[size];
+        int index = 0;
+        for (int i = 0; i < modified.allocated.length; i++) {
+            if (modified.allocated[i]) {
+                Transformation transformation = solutionSpace.getTransformation(modified.keys[i]);
+                int mask = 0;
+                for (int j = 0; j < properties.length; j++) {
+                    if (transformation.hasProperty(properties[j])) {
+                        mask |= 1 << j;
+                    }
+                }
+                checkpoint.ids[index] = modified.keys[i];
+                checkpoint.properties[index] = mask;
+                checkpoint.losses[index] = transformation.getInformationLoss();
+                checkpoint.bounds[index] = transformation.getLowerBound();
+                index++;
+            }
+        }
+
+        // Write
+        try {
+            checkpoint.write(checkpointFile);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        checkpointTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Computes the lower bounds of all transformations on the given level which may need to be processed
+     * and for which no bound is known, in batches.
+     *
+     * @param level
+     * @param triggerSkip
+     */
+    private void computeLowerBounds(int level, DependentAction triggerSkip) {
+
+        List<Transformation> batch = new ArrayList<Transformation>();
+        for (LongIterator iter = solutionSpace.unsafeGetLevel(level); iter.hasNext();) {
+
+            // Check whether the bound is needed
+            long id = iter.next();
+            if (lowerBounds.isKnown(id) || isSkipped(triggerSkip, id) ||
+                (insufficientUtility != null && insufficientUtility.get(id))) {
+                continue;
+            }
+            // Decisions are remembered, so that later scans do not create a Transformation again
+            Transformation transformation = solutionSpace.getTransformation(id);
+            if (triggerSkip.appliesTo(transformation)) {
+                FLASHBitSet skipped = getSkipped(triggerSkip);
+                if (skipped != null) {
+                    skipped.set(id);
+                }
+                if (tracker != null && !transformation.hasProperty(solutionSpace.getPropertyChecked())) {
+                    tracker.prune(id);
+                }
+                continue;
+            }
+            if (transformation.hasProperty(solutionSpace.getPropertyInsufficientUtility())) {
+                if (insufficientUtility != null) {
+                    insufficientUtility.set(id);
+                }
+                continue;
+            }
+
+            // Bound is known but not cached
+            InformationLoss<?> lowerBound = transformation.getLowerBound();
+            if (lowerBound != null) {
+                lowerBounds.put(id, lowerBound);
+                continue;
+            }
+
+            // Compute
+            batch.add(transformation);
+            if (batch.size() == FLASHLowerBounds.BATCH_SIZE) {
+                lowerBounds.compute(batch, metrics);
+                batch.clear();
+            }
+        }
+        lowerBounds.compute(batch, metrics);
+    }
+
+    /**
+     * Checks the given transformation with the given checker, within the budget of its history
+     *
+     * @param checker
+     * @param transformation
+     * @return
+     */
+    private NodeChecker.Result check(NodeChecker checker, Transformation transformation) {
+        return histories.get(checker).check(transformation);
+    }
+
+    /**
+     * Checks and tags the given transformation.
+     *
+     * @param transformation
+     * @param configuration
+     */
+    private void checkAndTag(Transformation transformation, FLASHPhaseConfiguration configuration) {
+
+        // Wait for other workers which are checking this transformation. The worker which checked it
+        // has also tracked the optimum and pruned, so only the tag of this phase remains to be applied.
+        if (claimed.contains(transformation.getIdentifier())) {
+            while (claimed.contains(transformation.getIdentifier())) {
+                available.awaitUninterruptibly();
+            }
+            if (transformation.hasProperty(solutionSpace.getPropertyChecked())) {
+                configuration.getTriggerTag().apply(transformation);
+                return;
+            }
+        }
+
+        // Check or evaluate
+        phase = configuration == config.getBinaryPhaseConfiguration() ? FLASHEventLog.PHASE_BINARY : FLASHEventLog.PHASE_LINEAR;
+        long time = log != null ? System.nanoTime() : 0L;
+        if (configuration.getTriggerEvaluate().appliesTo(transformation)) {
+            Metric<?> metric = getChecker().getMetric();
+            InformationLossWithBound<?> loss = metric.getInformationLoss(transformation, (HashGroupify)null);
+            transformation.setInformationLoss(loss.getInformationLoss());
+            transformation.setLowerBound(loss.getLowerBound());
+            if (loss.getLowerBound() == null) {
+                transformation.setLowerBound(metric.getLowerBound(transformation));
+            }
+            log(transformation, FLASHEventLog.ACTION_EVALUATE, time);
+        } else if (configuration.getTriggerCheck().appliesTo(transformation)) {
+            transformation.setChecked(check(transformation));
+            progress((double)++checked / (double)solutionSpace.getSize());
+            track(transformation);
+            log(transformation, FLASHEventLog.ACTION_CHECK, time);
+        }
+
+        // Store optimum
+        modified(transformation);
+        trackOptimum(transformation);
+        share();
+
+        // Tag
+        configuration.getTriggerTag().apply(transformation);
+
+        // Potentially prune some parts of the search space
+        prune(transformation);
+    }
+
+    /**
+     * Checks a path binary.
+     *
+     * @param path The path
+     * @param triggerSkip
+     * @param queue
+     * @return
+     */
+    private Transformation checkPath(List<Transformation> path, DependentAction triggerSkip, FLASHQueue queue) {
+
+        // Obtain anonymity property
+        PredictiveProperty anonymityProperty = config.getBinaryPhaseConfiguration().getAnonymityProperty() == PhaseAnonymityProperty.ANONYMITY ?
+                                               solutionSpace.getPropertyAnonymous() : solutionSpace.getPropertyKAnonymous();
+
+        // Init
+        int low = 0;
+        int high = path.size() - 1;
+        Transformation lastAnonymousTransformation = null;
+        Speculation lower = null;
+        Speculation upper = null;
+
+        // While not done
+        while (low <= high && !isTerminated()) {
+
+            // Init
+            final int mid = (low + high) / 2;
+            final Transformation transformation = path.get(mid);
+
+            // Use the speculative check of this midpoint, if any, and discard the other one
+            if (speculator != null) {
+                if (lower != null && lower.index == mid) {
+                    speculation = lower;
+                } else {
+                    discard(lower);
+                }
+                if (upper != null && upper.index == mid) {
+                    speculation = upper;
+                } else {
+                    discard(upper);
+                }
+                lower = null;
+                upper = null;
+            }
+
+            // Skip
+            if (!skip(triggerSkip, transformation)) {
+
+                // Speculatively check both possible next midpoints
+                if (speculator != null) {
+                    lower = speculate(path, low, mid - 1, triggerSkip);
+                    upper = speculate(path, mid + 1, high, triggerSkip);
+                }
+
+                // Check and tag
+                checkAndTag(transformation, config.getBinaryPhaseConfiguration());
+
+                // Add nodes to queue
+                if (!transformation.hasProperty(anonymityProperty)) {
+                    long id = transformation.getIdentifier();
+                    for (int i = 0, size = sortedSuccessors.size(id); i < size; i++) {
+                        final long up = sortedSuccessors.get(id, i);
+                        if (!skip(triggerSkip, up)) {
+                            queue.add(up);
+                        }
+                    }
+                }
+
+                // Binary search
+                if (transformation.hasProperty(anonymityProperty)) {
+                    lastAnonymousTransformation = transformation;
+                    high = mid - 1;
+                } else {
+                    low = mid + 1;
+                }
+            } else {
+                high = mid - 1;
+            }
+
+            // The speculative check of this midpoint has not been used
+            if (speculation != null) {
+                discard(speculation);
+                speculation = null;
+            }
+        }
+
+        // Discard remaining speculative checks
+        discard(lower);
+        discard(upper);
+        
+        return lastAnonymousTransformation;
+    }
+
+    /**
+     * Greedily finds a path to the top node.
+     *
+     * @param current The node to start the path with. Will be included
+     * @param triggerSkip All nodes to which this trigger applies will be skipped
+     * @return The path as a list
+     */
+    private List<Transformation> findPath(Transformation current, DependentAction triggerSkip) {
+        List<Transformation> path = new ArrayList<Transformation>();
+        path.add(current);
+        boolean found = true;
+        while (found) {
+            found = false;
+            long identifier = current.getIdentifier();
+            for (int i = 0, size = sortedSuccessors.size(identifier); i < size; i++) {
+                long next = sortedSuccessors.get(identifier, i);
+                if (!skip(triggerSkip, next)) {
+                    current = solutionSpace.getTransformation(next);
+                    path.add(current);
+                    found = true;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+    
+    /**
+     * Returns all transformations that do not have the given property and sorts the resulting array
+     * according to the strategy.
+     *
+     * @param level The level which is to be sorted
+     * @param triggerSkip The trigger to be used for limiting the number of nodes to be sorted
+     * @return A sorted array of nodes remaining on this level
+     */
+    private long[] getSortedUnprocessedNodes(int level, DependentAction triggerSkip) {
+
+        // Compute missing lower bounds
+        boolean limited = TIME_LIMIT != Long.MAX_VALUE || CHECK_LIMIT != Long.MAX_VALUE;
+        if (lowerBounds != null && (limited || (USE_LOWER_BOUND && potentiallyInsufficientUtility != null &&
+            !checker.getConfiguration().isPracticalMonotonicity() && getGlobalOptimum() != null))) {
+            computeLowerBounds(level, triggerSkip);
+        }
+
+        // Create
+        LongArrayList list = new LongArrayList();
+        for (LongIterator iter = solutionSpace.unsafeGetLevel(level); iter.hasNext();) {
+            long id = iter.next();
+            if (!skip(triggerSkip, id)) {
+                list.add(id);
+            }            
+        }
+
+        // Copy & sort
+        long[] array = new long[list.size()];
+        System.arraycopy(list.buffer, 0, array, 0, list.elementsCount);
+        keys.sort(array, Runtime.getRuntime().availableProcessors());
+        
+        // With limits, transformations which may have a low information loss come first
+        if (limited && lowerBounds != null) {
+            sortByLowerBound(array);
+        }
+        return array;
+    }
+
+    /**
+     * Returns the given checker and the checkers of threads - 1 additional workers
+     *
+     * @param checker
+     * @param threads
+     * @return
+     */
+    private static NodeChecker[] getCheckers(NodeChecker checker, int threads) {
+        if (threads <= 1) {
+            return new NodeChecker[] { checker };
+        }
+        if (CHECKER_FACTORY == null) {
+            throw new IllegalStateException("Traversals with " + threads + " threads require a checker factory");
+        }
+        NodeChecker[] checkers = new NodeChecker[threads];
+        checkers[0] = checker;
+        for (int i = 1; i < threads; i++) {
+            checkers[i] = CHECKER_FACTORY.create(checker);
+        }
+        return checkers;
+    }
+
+    /**
+     * Returns the checker of the current worker
+     *
+     * @return
+     */
+    private NodeChecker getChecker() {
+        NodeChecker current = worker.get();
+        return current != null ? current : checker;
+    }
+
+    /**
+     * Removes and returns a deferred node which is not claimed anymore, or -1
+     *
+     * @param deferred
+     * @return
+     */
+    private long pollReleased(LongArrayList deferred) {
+        for (int i = 0; i < deferred.size(); i++) {
+            long id = deferred.get(i);
+            if (!claimed.contains(id)) {
+                deferred.set(i, deferred.get(deferred.size() - 1));
+                deferred.remove(deferred.size() - 1);
+                return id;
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * Returns the set of transformations skipped by the given trigger, or null
+     *
+     * @param trigger
+     * @return
+     */
+    private FLASHBitSet getSkipped(DependentAction trigger) {
+        if (skippedBinary == null) {
+            return null;
+        } else if (trigger == config.getBinaryPhaseConfiguration().getTriggerSkip()) {
+            return skippedBinary;
+        } else if (trigger == config.getLinearPhaseConfiguration().getTriggerSkip()) {
+            return skippedLinear;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the partition of the given transformation, see PARTITION_COUNT
+     *
+     * @param transformation
+     * @return
+     */
+    private int getPartition(Transformation transformation) {
+        int[] generalization = transformation.getGeneralization();
+        int index = 0;
+        for (int i = 0; i < PARTITION_ATTRIBUTES.length; i++) {
+            index = index * partitionLevels[i] + generalization[PARTITION_ATTRIBUTES[i]];
+        }
+        return index % PARTITION_COUNT;
+    }
+
+    /**
+     * Returns whether the lower bound of the given transformation is not smaller than the information
+     * loss of the optimum or larger than the optimum of other partitions. Decides on primitives if possible.
+     *
+     * @param transformation
+     * @return
+     */
+    private boolean hasInsufficientUtility(Transformation transformation) {
+
+        // Optimum of other partitions
+        Transformation optimalTransformation = getGlobalOptimum();
+        if (!Double.isNaN(sharedOptimum)) {
+            double bound = lowerBounds != null ? lowerBounds.get(transformation.getIdentifier()) : Double.NaN;
+            if (Double.isNaN(bound)) {
+                if (transformation.getLowerBound() == null) {
+                    transformation.setLowerBound(getChecker().getMetric().getLowerBound(transformation));
+                }
+                bound = FLASHLowerBounds.toPrimitive(transformation.getLowerBound());
+            }
+            if (sharedOptimum < bound) {
+                return true;
+            }
+        }
+        if (optimalTransformation == null) {
+            return false;
+        }
+
+        // Primitives
+        if (lowerBounds != null) {
+            if (optimum != optimalTransformation) {
+                optimum = optimalTransformation;
+                optimumValue = FLASHLowerBounds.toPrimitive(optimalTransformation.getInformationLoss());
+            }
+            double bound = lowerBounds.get(transformation.getIdentifier());
+            if (!Double.isNaN(bound) && !Double.isNaN(optimumValue) && bound != optimumValue) {
+                FLASHLowerBounds.addDecision(true);
+                return optimumValue < bound;
+            }
+        }
+
+        // Check whether a lower bound exists
+        InformationLoss<?> lowerBound = transformation.getLowerBound();
+        if (lowerBound == null) {
+            lowerBound = getChecker().getMetric().getLowerBound(transformation);
+            if (lowerBound != null) {
+                transformation.setLowerBound(lowerBound);
+            }
+        }
+        if (lowerBounds != null && lowerBound != null) {
+            lowerBounds.put(transformation.getIdentifier(), lowerBound);
+        }
 
-        // Potentially prune some parts of the search space
-        prune(transformation);
+        // Check whether this node has insufficient utility, if a lower bound exists
+        FLASHLowerBounds.addDecision(false);
+        return lowerBound != null && optimalTransformation.getInformationLoss().compareTo(lowerBound) <= 0;
     }
 
     /**
-     * Checks a path binary.
+     * Implements a depth-first search with predictive tagging. The search uses an explicit stack,
+     * whose depth is limited by LINEAR_PHASE_MAX_DEPTH. Transformations beyond this limit are deferred
+     * and used as starting points of further searches in level order.
      *
-     * @param path The path
-     * @param triggerSkip
-     * @param queue
-     * @return
+     * @param transformation
      */
-    private Transformation checkPath(List<Transformation> path, DependentAction triggerSkip, PriorityQueue<Integer> queue) {
+    private void linearSearch(Transformation transformation) {
 
-        // Obtain anonymity property
-        PredictiveProperty anonymityProperty = config.getBinaryPhaseConfiguration().getAnonymityProperty() == PhaseAnonymityProperty.ANONYMITY ?
-                                               solutionSpace.getPropertyAnonymous() : solutionSpace.getPropertyKAnonymous();
+        // Obtain node action
+        FLASHPhaseConfiguration configuration = config.getLinearPhaseConfiguration();
+        DependentAction triggerSkip = configuration.getTriggerSkip();
 
-        // Init
-        int low = 0;
-        int high = path.size() - 1;
-        Transformation lastAnonymousTransformation = null;
+        // Limits
+        if (isTerminated()) {
+            return;
+        }
 
-        // While not done
-        while (low <= high) {
+        // Skip this node
+        if (skip(triggerSkip, transformation)) {
+            transformation.setProperty(solutionSpace.getPropertySuccessorsPruned());
+            modified(transformation);
+            return;
+        }
 
-            // Init
-            final int mid = (low + high) / 2;
-            final Transformation transformation = path.get(mid);
+        // Check and tag
+        checkAndTag(transformation, configuration);
 
-            // Skip
-            if (!skip(triggerSkip, transformation)) {
+        // DFS
+        LinearSearchStack stack = new LinearSearchStack();
+        FLASHQueue deferred = null;
+        stack.push(transformation.getIdentifier());
+        while (!isTerminated()) {
 
-                // Check and tag
-                checkAndTag(transformation, config.getBinaryPhaseConfiguration());
+            // Continue with deferred transformations
+            if (stack.isEmpty()) {
+                if (deferred == null || deferred.isEmpty()) {
+                    break;
+                }
+                Transformation next = solutionSpace.getTransformation(deferred.poll());
+                if (!skip(triggerSkip, next)) {
+                    checkAndTag(next, configuration);
+                    stack.push(next.getIdentifier());
+                }
+                continue;
+            }
 
-                // Add nodes to queue
-                if (!transformation.hasProperty(anonymityProperty)) {
-                    for (final int up : getSortedSuccessors(transformation)) {
-                        if (!skip(triggerSkip, solutionSpace.getTransformation(up))) {
-                            queue.add(up);
+            // Visit next successor
+            long id = stack.peek();
+            int index = stack.next();
+            if (index < sortedSuccessors.size(id)) {
+                long child = sortedSuccessors.get(id, index);
+                if (!skip(triggerSkip, child)) {
+                    if (stack.size() < LINEAR_PHASE_MAX_DEPTH) {
+                        checkAndTag(solutionSpace.getTransformation(child), configuration);
+                        stack.push(child);
+                    } else {
+                        if (deferred == null) {
+                            deferred = new FLASHQueue(keys, 16);
                         }
+                        deferred.add(child);
                     }
                 }
 
-                // Binary search
-                if (transformation.hasProperty(anonymityProperty)) {
-                    lastAnonymousTransformation = transformation;
-                    high = mid - 1;
-                } else {
-                    low = mid + 1;
-                }
+            // Mark as successors pruned
             } else {
-                high = mid - 1;
+                stack.pop();
+                Transformation done = solutionSpace.getTransformation(id);
+                done.setProperty(solutionSpace.getPropertySuccessorsPruned());
+                modified(done);
             }
         }
-        
-        return lastAnonymousTransformation;
     }
 
     /**
-     * Greedily finds a path to the top node.
+     * Returns whether the current traversal must be terminated because of a limit
      *
-     * @param current The node to start the path with. Will be included
-     * @param triggerSkip All nodes to which this trigger applies will be skipped
-     * @return The path as a list
+     * @return
      */
-    private List<Transformation> findPath(Transformation current, DependentAction triggerSkip) {
-        List<Transformation> path = new ArrayList<Transformation>();
-        path.add(current);
-        boolean found = true;
-        while (found) {
-            found = false;
-            for (final int id : getSortedSuccessors(current)) {
-                Transformation next = solutionSpace.getTransformation(id);
-                if (!skip(triggerSkip, next)) {
-                    current = next;
-                    path.add(next);
-                    found = true;
-                    break;
-                }
-            }
+    private boolean isTerminated() {
+        if (!terminated && (checked >= CHECK_LIMIT ||
+                            (TIME_LIMIT != Long.MAX_VALUE && System.currentTimeMillis() - startTime >= TIME_LIMIT))) {
+            terminated = true;
         }
-        return path;
+        return terminated;
     }
-    
+
     /**
-     * Returns all transformations that do not have the given property and sorts the resulting array
-     * according to the strategy.
+     * Extracts the knowledge of the current traversal: the minimal anonymous and the maximal non-anonymous
+     * transformations which have been checked, and the optimum.
      *
-     * @param level The level which is to be sorted
-     * @param triggerSkip The trigger to be used for limiting the number of nodes to be sorted
-     * @return A sorted array of nodes remaining on this level
+     * @param signature
+     * @return
      */
-    private int[] getSortedUnprocessedNodes(int level, DependentAction triggerSkip) {
+    private FLASHKnowledge learn(String signature) {
+
+        PredictiveProperty anonymous = solutionSpace.getPropertyAnonymous();
+        PredictiveProperty notAnonymous = solutionSpace.getPropertyNotAnonymous();
+        PredictiveProperty checkedProperty = solutionSpace.getPropertyChecked();
+        LongArrayList minimal = new LongArrayList();
+        LongArrayList maximal = new LongArrayList();
+
+        // For each checked transformation
+        for (int i = 0; i < modified.allocated.length; i++) {
+            if (!modified.allocated[i]) {
+                continue;
+            }
+            Transformation transformation = solutionSpace.getTransformation(modified.keys[i]);
+            if (!transformation.hasProperty(checkedProperty)) {
+                continue;
+            }
 
-        // Create
-        IntArrayList list = new IntArrayList();
-        for (LongIterator iter = solutionSpace.unsafeGetLevel(level); iter.hasNext();) {
-            long id = iter.next();
-            if (!skip(triggerSkip, solutionSpace.getTransformation(id))) {
-                list.add((int)id);
-            }            
+            // Anonymous transformations without anonymous predecessors
+            if (transformation.hasProperty(anonymous)) {
+                if (!hasNeighbour(transformation.getPredecessors(), anonymous)) {
+                    minimal.add(transformation.getIdentifier());
+                }
+
+            // Non-anonymous transformations without non-anonymous successors
+            } else if (transformation.hasProperty(notAnonymous)) {
+                if (!hasNeighbour(transformation.getSuccessors(), notAnonymous)) {
+                    maximal.add(transformation.getIdentifier());
+                }
+            }
         }
 
-        // Copy & sort
-        int[] array = new int[list.size()];
-        System.arraycopy(list.buffer, 0, array, 0, list.elementsCount);
-        sort(array);
-        return array;
+        // Return
+        Transformation optimum = getGlobalOptimum();
+        return new FLASHKnowledge(signature, minimal.toArray(), maximal.toArray(),
+                                  optimum == null ? -1L : optimum.getIdentifier());
     }
 
     /**
-     * Implements a depth-first search with predictive tagging.
+     * Returns whether one of the given neighbours has the given property
      *
-     * @param transformation
+     * @param neighbours
+     * @param property
+     * @return
      */
-    private void linearSearch(Transformation transformation) {
-
-        // Obtain node action
-        DependentAction triggerSkip = config.getLinearPhaseConfiguration().getTriggerSkip();
-
-        // Skip this node
-        if (!skip(triggerSkip, transformation)) {
+    private boolean hasNeighbour(cern.colt.list.LongArrayList neighbours, PredictiveProperty property) {
+        for (int i = 0; i < neighbours.size(); i++) {
+            if (solutionSpace.getTransformation(neighbours.getQuick(i)).hasProperty(property)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            // Check and tag
-            checkAndTag(transformation, config.getLinearPhaseConfiguration());
+    /**
+     * Returns whether the given transformation is known to be skipped by the given trigger
+     *
+     * @param trigger
+     * @param id
+     * @return
+     */
+    private boolean isSkipped(DependentAction trigger, long id) {
+        FLASHBitSet skipped = getSkipped(trigger);
+        return skipped != null && skipped.get(id);
+    }
 
-            // DFS
-            for (final int child : getSortedSuccessors(transformation)) {
-                Transformation childTransformation = solutionSpace.getTransformation(child);
-                if (!skip(triggerSkip, childTransformation)) {
-                    linearSearch(childTransformation);
-                }
-            }
+    /**
+     * Logs an event, if the event log is enabled
+     *
+     * @param transformation
+     * @param action
+     * @param time Start of the action, or 0
+     */
+    private void log(Transformation transformation, byte action, long time) {
+        if (log == null) {
+            return;
         }
+        byte outcome = FLASHEventLog.OUTCOME_NONE;
+        if (action == FLASHEventLog.ACTION_CHECK) {
+            outcome = transformation.hasProperty(solutionSpace.getPropertyAnonymous()) ? FLASHEventLog.OUTCOME_ANONYMOUS : FLASHEventLog.OUTCOME_NOT_ANONYMOUS;
+        }
+        log.append(transformation.getIdentifier(), transformation.getLevel(), queue == null ? 0 : queue.size(),
+                   phase, action, outcome, time == 0L ? 0L : System.nanoTime() - time);
+    }
 
-        // Mark as successors pruned
-        transformation.setProperty(solutionSpace.getPropertySuccessorsPruned());
+    /**
+     * Remembers that the given transformation has been modified, if checkpoints or the knowledge store are enabled
+     *
+     * @param transformation
+     */
+    private void modified(Transformation transformation) {
+        if (modified != null) {
+            modified.add(transformation.getIdentifier());
+        }
     }
 
     /**
@@ -379,7 +1781,7 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
 
         // If we haven't yet found an optimum, we simply add the node to the list of pruning candidates
         if (optimalTransformation == null) {
-            potentiallyInsufficientUtility.add((int)node.getIdentifier());
+            potentiallyInsufficientUtility.add(node.getIdentifier(), FLASHLowerBounds.toPrimitive(node.getLowerBound()));
             return;
         }
 
@@ -391,134 +1793,336 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
 
             // Prune it
             if (optimalInfoLoss.compareTo(node.getLowerBound()) <= 0) {
-                node.setProperty(solutionSpace.getPropertyInsufficientUtility());
+                setInsufficientUtility(node);
                 node.setProperty(solutionSpace.getPropertySuccessorsPruned());
+                modified(node);
+                log(node, FLASHEventLog.ACTION_PRUNE, 0L);
                 // Else, we store it as a future pruning candidate
             } else {
-                potentiallyInsufficientUtility.add((int)node.getIdentifier());
+                potentiallyInsufficientUtility.add(node.getIdentifier(), FLASHLowerBounds.toPrimitive(node.getLowerBound()));
             }
 
-            // If the current node is our new optimum, we check all candidates
+            // If the current node is our new optimum, we prune all candidates with a lower bound
+            // which is not smaller than the new optimum. The others remain candidates.
         } else {
 
-            // For each candidate
-            Iterator<Integer> iterator = potentiallyInsufficientUtility.iterator();
-            while (iterator.hasNext()) {
-                Integer current = iterator.next();
-
-                // Remove the candidate, if it was already pruned in the meantime
-                Transformation currentTransformation = solutionSpace.getTransformation(current);
-                if (currentTransformation.hasProperty(solutionSpace.getPropertySuccessorsPruned())) {
-                    iterator.remove();
+            // For each such candidate. Primitive bounds may be equal for bounds which are not, so
+            // candidates which can not be pruned are added again afterwards.
+            double optimalValue = FLASHLowerBounds.toPrimitive(optimalInfoLoss);
+            LongArrayList retained = new LongArrayList();
+            DoubleArrayList retainedBounds = new DoubleArrayList();
+            while (potentiallyInsufficientUtility.hasNext(optimalValue)) {
+                double bound = potentiallyInsufficientUtility.peekBound();
+                long candidate = potentiallyInsufficientUtility.poll();
+                if (!prune(solutionSpace.getTransformation(candidate), optimalInfoLoss)) {
+                    retained.add(candidate);
+                    retainedBounds.add(bound);
+                }
+            }
+            for (int i = 0; i < retained.size(); i++) {
+                potentiallyInsufficientUtility.add(retained.get(i), retainedBounds.get(i));
+            }
 
-                    // Else, check if we can prune it
-                } else if (optimalInfoLoss.compareTo(currentTransformation.getLowerBound()) <= 0) {
-                    currentTransformation.setProperty(solutionSpace.getPropertyInsufficientUtility());
-                    currentTransformation.setProperty(solutionSpace.getPropertySuccessorsPruned());
-                    iterator.remove();
+            // Candidates without primitive bounds are compared one by one
+            LongArrayList unranked = potentiallyInsufficientUtility.getUnranked();
+            for (int i = 0; i < unranked.size();) {
+                if (prune(solutionSpace.getTransformation(unranked.get(i)), optimalInfoLoss)) {
+                    unranked.set(i, unranked.get(unranked.size() - 1));
+                    unranked.remove(unranked.size() - 1);
+                } else {
+                    i++;
                 }
             }
 
             // The current optimum is a future pruning candidate
             if (!node.hasProperty(solutionSpace.getPropertySuccessorsPruned())) {
-                potentiallyInsufficientUtility.add((int)node.getIdentifier());
+                potentiallyInsufficientUtility.add(node.getIdentifier(), FLASHLowerBounds.toPrimitive(node.getLowerBound()));
             }
         }
     }
 
     /**
-     * Returns whether a node should be skipped.
+     * Prunes the given candidate, if its lower bound is not smaller than the given optimum
+     * and it has not already been pruned in the meantime
      *
-     * @param transformation
-     * @param identifier
-     * @return
+     * @param candidate
+     * @param optimum
+     * @return Whether the candidate has insufficient utility
      */
-    private boolean skip(DependentAction trigger, Transformation transformation) {
-
-        // If the trigger applies, skip
-        if (trigger.appliesTo(transformation)) {
-            return true;
-        }
-        
-        if (!USE_LOWER_BOUND) {
+    private boolean prune(Transformation candidate, InformationLoss<?> optimum) {
+        if (optimum.compareTo(candidate.getLowerBound()) > 0) {
             return false;
         }
-
-        // Check if pruning is enabled
-        if (potentiallyInsufficientUtility == null) {
-            return false;
+        if (!candidate.hasProperty(solutionSpace.getPropertySuccessorsPruned())) {
+            setInsufficientUtility(candidate);
+            candidate.setProperty(solutionSpace.getPropertySuccessorsPruned());
+            modified(candidate);
+            log(candidate, FLASHEventLog.ACTION_PRUNE, 0L);
         }
+        return true;
+    }
 
-        // Check, if we can prune based on a monotonic sub-metric
-        if (!checker.getConfiguration().isPracticalMonotonicity() && (getGlobalOptimum() != null)) {
+    /**
+     * Restores the state of the traversal from the checkpoint file.
+     *
+     * @param queue The queue into which the queue of the checkpoint is restored
+     * @return The level at which the traversal continues
+     */
+    private int resume(FLASHQueue queue) {
+
+        // Read
+        FLASHCheckpoint checkpoint;
+        try {
+            checkpoint = FLASHCheckpoint.read(checkpointFile);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (!checkpoint.matches(signature)) {
+            throw new IllegalStateException("Checkpoint does not belong to this problem: " + checkpointFile);
+        }
 
-            // We skip, if we already know that this node has insufficient utility
-            if (transformation.hasProperty(solutionSpace.getPropertyInsufficientUtility())) {
-                return true;
+        // Transformations
+        for (int i = 0; i < checkpoint.ids.length; i++) {
+            Transformation transformation = solutionSpace.getTransformation(checkpoint.ids[i]);
+            if (checkpoint.losses[i] != null) {
+                transformation.setInformationLoss(checkpoint.losses[i]);
             }
-
-            // Check whether a lower bound exists
-            InformationLoss<?> lowerBound = transformation.getLowerBound();
-            if (lowerBound == null) {
-                lowerBound = checker.getMetric().getLowerBound(transformation);
-                if (lowerBound != null) {
-                    transformation.setLowerBound(lowerBound);
+            if (checkpoint.bounds[i] != null) {
+                transformation.setLowerBound(checkpoint.bounds[i]);
+            }
+            for (int j = 0; j < properties.length; j++) {
+                if ((checkpoint.properties[i] & (1 << j)) != 0) {
+                    transformation.setProperty(properties[j]);
                 }
             }
+            modified.add(checkpoint.ids[i]);
+        }
 
-            // Check whether this node has insufficient utility, if a lower bound exists
-            if (lowerBound != null) {
-                if (getGlobalOptimum().getInformationLoss().compareTo(lowerBound) <= 0) {
-                    transformation.setProperty(solutionSpace.getPropertyInsufficientUtility());
-                    transformation.setProperty(solutionSpace.getPropertySuccessorsPruned());
-                    return true;
-                }
+        // Optimum
+        if (checkpoint.optimum != -1L) {
+            trackOptimum(solutionSpace.getTransformation(checkpoint.optimum));
+        }
+
+        // Pruning candidates
+        if (potentiallyInsufficientUtility != null) {
+            for (int i = 0; i < checkpoint.candidates.length; i++) {
+                potentiallyInsufficientUtility.add(checkpoint.candidates[i], checkpoint.candidateBounds[i]);
             }
         }
 
-        // We need to process this node
-        return false;
+        // Traversal
+        for (long id : checkpoint.queue) {
+            queue.add(id);
+        }
+        checked = checkpoint.checked;
+        progress((double)checked / (double)solutionSpace.getSize());
+        if (tracker != null) {
+            tracker.resume(checked);
+        }
+        return checkpoint.level;
     }
 
     /**
-     * Sorts a given array of transformation identifiers.
-     * 
+     * Sorts the given transformations by their primitive lower bounds. The sort is stable, so that the order
+     * of the strategy is retained among transformations with equal bounds. Unknown bounds come last.
+     *
      * @param array
      */
-    private void sort(final int[] array) {
+    private void sortByLowerBound(final long[] array) {
+        final double[] bounds = new double[array.length];
+        for (int i = 0; i < array.length; i++) {
+            bounds[i] = lowerBounds.get(array[i]);
+        }
         GenericSorting.mergeSort(0, array.length, new IntComparator(){
             @Override
             public int compare(int arg0, int arg1) {
-                return strategy.compare(array[arg0], array[arg1]);
+                return Double.compare(bounds[arg0], bounds[arg1]);
             }
         }, new Swapper(){
             @Override
             public void swap(int arg0, int arg1) {
-                int temp = array[arg0];
+                long temp = array[arg0];
                 array[arg0] = array[arg1];
                 array[arg1] = temp;
+                double bound = bounds[arg0];
+                bounds[arg0] = bounds[arg1];
+                bounds[arg1] = bound;
             }
-            
         });
     }
 
     /**
-     * Sorts pointers to successor nodes according to the strategy.
+     * Checks the transformations of a previous traversal first: the optimum, the minimal anonymous and
+     * the maximal non-anonymous transformations. If the frontier still holds, tagging their results
+     * covers most of the solution space, which is then skipped by the traversal.
+     *
+     * @param knowledge
+     * @param configuration
+     */
+    private void seed(FLASHKnowledge knowledge, FLASHPhaseConfiguration configuration) {
+        if (knowledge.optimum != -1L) {
+            seed(knowledge.optimum, true, configuration);
+        }
+        for (long id : knowledge.anonymous) {
+            seed(id, true, configuration);
+        }
+        for (long id : knowledge.notAnonymous) {
+            seed(id, false, configuration);
+        }
+    }
+
+    /**
+     * Checks the given transformation, if it is still unknown
+     *
+     * @param id
+     * @param anonymous Whether the transformation was anonymous in the previous traversal
+     * @param configuration
+     */
+    private void seed(long id, boolean anonymous, FLASHPhaseConfiguration configuration) {
+        if (id < 0 || id >= solutionSpace.getSize() || isTerminated()) {
+            return;
+        }
+        Transformation transformation = solutionSpace.getTransformation(id);
+        if (skip(configuration.getTriggerSkip(), transformation)) {
+            return;
+        }
+        checkAndTag(transformation, configuration);
+        FLASHKnowledge.addSeeded(transformation.hasProperty(solutionSpace.getPropertyAnonymous()) == anonymous);
+    }
+
+    /**
+     * Reports the check of the given transformation to the tracker, if any
+     *
+     * @param transformation
+     */
+    private void track(Transformation transformation) {
+        if (tracker != null) {
+            tracker.check(checked, transformation.getLevel(), FLASHEventLog.PHASES[phase]);
+        }
+    }
+
+    /**
+     * Tags the given transformation with insufficient utility
+     *
+     * @param transformation
+     */
+    private void setInsufficientUtility(Transformation transformation) {
+        transformation.setProperty(solutionSpace.getPropertyInsufficientUtility());
+        if (insufficientUtility != null) {
+            insufficientUtility.set(transformation.getIdentifier());
+        }
+        if (tracker != null) {
+            tracker.prune(transformation.getIdentifier());
+        }
+    }
+
+    /**
+     * Publishes the optimum of this partition to the coordinator, if it has improved, and takes over
+     * the best optimum of all partitions received so far. Never waits for the coordinator.
+     */
+    private void share() {
+        if (coordinator == null) {
+            return;
+        }
+        Transformation optimalTransformation = getGlobalOptimum();
+        if (optimalTransformation != null) {
+            double value = FLASHLowerBounds.toPrimitive(optimalTransformation.getInformationLoss());
+            if (Double.isNaN(publishedOptimum) || value < publishedOptimum) {
+                try {
+                    coordinator.publish(value);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                publishedOptimum = value;
+            }
+        }
+        sharedOptimum = coordinator.getOptimum();
+    }
+
+    /**
+     * Returns whether a node should be skipped. Creates a Transformation only if the decision is not
+     * known yet.
+     *
+     * @param trigger
+     * @param id
+     * @return
+     */
+    private boolean skip(DependentAction trigger, long id) {
+        return isSkipped(trigger, id) || skip(trigger, solutionSpace.getTransformation(id));
+    }
+
+    /**
+     * Returns whether a node should be skipped.
+     *
+     * @param trigger
+     * @param transformation
+     * @return
+     */
+    private boolean skip(DependentAction trigger, Transformation transformation) {
+        FLASHBitSet skipped = getSkipped(trigger);
+        long id = transformation.getIdentifier();
+        if (skipped != null && skipped.get(id)) {
+            return true;
+        }
+        boolean result = isSkipped(trigger, transformation);
+        if (result && skipped != null) {
+            skipped.set(id);
+        }
+        if (result && tracker != null && !transformation.hasProperty(solutionSpace.getPropertyChecked())) {
+            tracker.prune(id);
+        }
+        return result;
+    }
+
+    /**
+     * Decides whether a node should be skipped.
      *
+     * @param trigger
      * @param transformation
+     * @return
      */
-    private int[] getSortedSuccessors(final Transformation transformation) {
+    private boolean isSkipped(DependentAction trigger, Transformation transformation) {
+
+        // If the trigger applies, skip
+        if (trigger.appliesTo(transformation)) {
+            return true;
+        }
+
+        // Skip transformations of other partitions
+        if (partitionLevels != null && getPartition(transformation) != PARTITION_INDEX) {
+            return true;
+        }
         
-        int identifier = (int)transformation.getIdentifier();
-        if (sortedSuccessors[identifier] == null) {
-            LongArrayList list = transformation.getSuccessors();
-            int[] result = new int[list.size()];
-            for (int i=0; i<list.size(); i++) {
-                result[i] = (int)list.getQuick(i);
+        if (!USE_LOWER_BOUND) {
+            return false;
+        }
+
+        // Check if pruning is enabled
+        if (potentiallyInsufficientUtility == null) {
+            return false;
+        }
+
+        // Check, if we can prune based on a monotonic sub-metric
+        if (!checker.getConfiguration().isPracticalMonotonicity() && (getGlobalOptimum() != null || !Double.isNaN(sharedOptimum))) {
+
+            // We skip, if we already know that this node has insufficient utility
+            if ((insufficientUtility != null && insufficientUtility.get(transformation.getIdentifier())) ||
+                transformation.hasProperty(solutionSpace.getPropertyInsufficientUtility())) {
+                return true;
+            }
+
+            // Check whether this node has insufficient utility
+            if (hasInsufficientUtility(transformation)) {
+                setInsufficientUtility(transformation);
+                transformation.setProperty(solutionSpace.getPropertySuccessorsPruned());
+                modified(transformation);
+                log(transformation, FLASHEventLog.ACTION_PRUNE, 0L);
+                return true;
             }
-            sort(result);
-            sortedSuccessors[identifier] = result;
         }
-        return sortedSuccessors[identifier];
+
+        // We need to process this node
+        return false;
     }
-}
+
+}
\ No newline at end of file
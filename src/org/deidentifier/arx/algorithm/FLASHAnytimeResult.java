@@ -0,0 +1,160 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import org.deidentifier.arx.metric.InformationLoss;
+
+/**
+ * The outcome of a FLASH traversal with a time or check limit. If the traversal has been terminated,
+ * the optimum is the best transformation found so far and the bound is the smallest lower bound of
+ * the remaining pruning candidates. The optimum of the whole solution space has an information loss
+ * between the bound and the loss of the optimum found.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHAnytimeResult {
+
+    /** The result of the last traversal */
+    private static volatile FLASHAnytimeResult last;
+
+    /**
+     * Returns the result of the last traversal, or null
+     *
+     * @return
+     */
+    public static FLASHAnytimeResult getLast() {
+        return last;
+    }
+
+    /**
+     * Sets the result of the last traversal
+     *
+     * @param result
+     */
+    static void setLast(FLASHAnytimeResult result) {
+        last = result;
+    }
+
+    /** Whether the traversal has been terminated */
+    private final boolean            terminated;
+
+    /** Information loss of the optimum found, or null */
+    private final InformationLoss<?> optimum;
+
+    /** Smallest remaining lower bound, or null */
+    private final InformationLoss<?> bound;
+
+    /** Number of checked transformations */
+    private final long               checked;
+
+    /** Execution time in milliseconds */
+    private final long               time;
+
+    /**
+     * Creates a new instance
+     *
+     * @param terminated
+     * @param optimum
+     * @param bound
+     * @param checked
+     * @param time
+     */
+    FLASHAnytimeResult(boolean terminated, InformationLoss<?> optimum, InformationLoss<?> bound, long checked, long time) {
+        this.terminated = terminated;
+        this.optimum = optimum;
+        this.bound = bound;
+        this.checked = checked;
+        this.time = time;
+    }
+
+    /**
+     * Returns the smallest remaining lower bound, or null
+     *
+     * @return
+     */
+    public InformationLoss<?> getBound() {
+        return bound;
+    }
+
+    /**
+     * Returns the number of checked transformations
+     *
+     * @return
+     */
+    public long getChecked() {
+        return checked;
+    }
+
+    /**
+     * Returns the difference between the information loss of the optimum found and the smallest
+     * remaining lower bound. Zero, if the traversal was complete. NaN, if unknown.
+     *
+     * @return
+     */
+    public double getGap() {
+        if (!terminated) {
+            return 0d;
+        }
+        double value = FLASHLowerBounds.toPrimitive(optimum);
+        double lower = FLASHLowerBounds.toPrimitive(bound);
+        return Double.isNaN(value) || Double.isNaN(lower) ? Double.NaN : Math.max(0d, value - lower);
+    }
+
+    /**
+     * Returns the information loss of the optimum found, or null
+     *
+     * @return
+     */
+    public InformationLoss<?> getOptimum() {
+        return optimum;
+    }
+
+    /**
+     * Returns the gap relative to the information loss of the optimum found
+     *
+     * @return
+     */
+    public double getRelativeGap() {
+        double value = FLASHLowerBounds.toPrimitive(optimum);
+        return value == 0d ? 0d : getGap() / value;
+    }
+
+    /**
+     * Returns the execution time in milliseconds
+     *
+     * @return
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns whether the traversal has been terminated by a limit
+     *
+     * @return
+     */
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    @Override
+    public String toString() {
+        return "Terminated: " + terminated + ", optimum: " + optimum + ", bound: " + bound + ", gap: " + getGap() +
+               ", checked: " + checked + ", time: " + time + "[ms]";
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+/**
+ * A set of transformations, indexed by their identifiers. Unlike java.util.BitSet, the set is indexed
+ * by longs and supports solution spaces with up to MAX_SIZE transformations. Words are allocated lazily
+ * in pages of PAGE_SIZE bits, so that the memory required is proportional to the parts of the solution
+ * space which have been touched. The set is not thread-safe.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHBitSet {
+
+    /** Maximal size of solution spaces for which sets are created. A full set requires MAX_SIZE / 8 bytes. */
+    public static long     MAX_SIZE   = 1L << 31;
+
+    /** Number of bits addressed by a page, as a power of two */
+    private static final int PAGE_BITS  = 15;
+
+    /** Number of words per page */
+    private static final int PAGE_WORDS = 1 << (PAGE_BITS - 6);
+
+    /** Pages of words, or null */
+    private final long[][] pages;
+
+    /** Number of allocated pages */
+    private int            allocated  = 0;
+
+    /**
+     * Creates a new instance for the given number of transformations
+     *
+     * @param size
+     */
+    public FLASHBitSet(long size) {
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Solution space too large: " + size);
+        }
+        this.pages = new long[(int) ((size + (1L << PAGE_BITS) - 1L) >>> PAGE_BITS)][];
+    }
+
+    /**
+     * Returns whether the given transformation is contained
+     *
+     * @param id
+     * @return
+     */
+    public boolean get(long id) {
+        long[] page = pages[(int) (id >>> PAGE_BITS)];
+        return page != null && (page[(int) (id >>> 6) & (PAGE_WORDS - 1)] & (1L << id)) != 0L;
+    }
+
+    /**
+     * Returns the number of bytes allocated for words
+     *
+     * @return
+     */
+    public long getBytes() {
+        return (long) allocated * (long) PAGE_WORDS * 8L;
+    }
+
+    /**
+     * Adds the given transformation
+     *
+     * @param id
+     */
+    public void set(long id) {
+        int index = (int) (id >>> PAGE_BITS);
+        long[] page = pages[index];
+        if (page == null) {
+            page = new long[PAGE_WORDS];
+            pages[index] = page;
+            allocated++;
+        }
+        page[(int) (id >>> 6) & (PAGE_WORDS - 1)] |= 1L << id;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.deidentifier.arx.metric.InformationLoss;
+
+/**
+ * The state of a FLASH traversal at a point at which it can be resumed. Properties of transformations
+ * are predictive, so it suffices to store the properties of all transformations which have been
+ * modified by the algorithm. Checkpoints are written to a temporary file which replaces the
+ * previous checkpoint afterwards, so that a crash while writing does not destroy the last checkpoint.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHCheckpoint implements Serializable {
+
+    /** SVUID */
+    private static final long        serialVersionUID = 3427713566187209406L;
+
+    /** Number of checkpoints written */
+    private static final AtomicLong  WRITTEN          = new AtomicLong();
+
+    /** Time spent writing checkpoints in nanoseconds */
+    private static final AtomicLong  TIME             = new AtomicLong();
+
+    /** Bytes written */
+    private static final AtomicLong  BYTES            = new AtomicLong();
+
+    /**
+     * Returns the number of bytes written
+     *
+     * @return
+     */
+    public static long getNumBytesWritten() {
+        return BYTES.get();
+    }
+
+    /**
+     * Returns the number of checkpoints written
+     *
+     * @return
+     */
+    public static long getNumWritten() {
+        return WRITTEN.get();
+    }
+
+    /**
+     * Returns the time spent writing checkpoints in nanoseconds
+     *
+     * @return
+     */
+    public static long getWriteTime() {
+        return TIME.get();
+    }
+
+    /**
+     * Reads a checkpoint
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static FLASHCheckpoint read(File file) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            return (FLASHCheckpoint) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Resets all counters
+     */
+    public static void reset() {
+        WRITTEN.set(0);
+        TIME.set(0);
+        BYTES.set(0);
+    }
+
+    /**
+     * Returns a string representation of the counters
+     *
+     * @return
+     */
+    public static String toStatistics() {
+        return "Checkpoints: " + getNumWritten() + ", bytes: " + getNumBytesWritten() + ", time: " +
+               ((double) getWriteTime() / 1000000d) + "[ms]";
+    }
+
+    /** Signature of the problem, see FLASHKnowledge.getSignature() */
+    final String               signature;
+
+    /** The current level */
+    int                        level;
+
+    /** The queue of the binary phase */
+    long[]                     queue;
+
+    /** Transformations modified by the algorithm */
+    long[]                     ids;
+
+    /** Their properties as bit masks */
+    int[]                      properties;
+
+    /** Their information loss */
+    InformationLoss<?>[]       losses;
+
+    /** Their lower bounds */
+    InformationLoss<?>[]       bounds;
+
+    /** The optimum, or -1 */
+    long                       optimum;
+
+    /** The pruning candidates */
+    long[]                     candidates;
+
+    /** Primitive lower bounds of the pruning candidates, NaN if unknown */
+    double[]                   candidateBounds;
+
+    /** The number of checked transformations */
+    long                       checked;
+
+    /**
+     * Creates a new instance
+     *
+     * @param signature
+     */
+    FLASHCheckpoint(String signature) {
+        this.signature = signature;
+    }
+
+    /**
+     * Returns whether this checkpoint belongs to the problem with the given signature. Besides the
+     * solution space, this covers the privacy criteria, the suppression limit and the metric.
+     *
+     * @param signature
+     * @return
+     */
+    boolean matches(String signature) {
+        return this.signature.equals(signature);
+    }
+
+    /**
+     * Writes this checkpoint to the given file
+     *
+     * @param file
+     * @throws IOException
+     */
+    void write(File file) throws IOException {
+        long time = System.nanoTime();
+        File temp = new File(file.getPath() + ".tmp");
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+        try {
+            out.writeObject(this);
+        } finally {
+            out.close();
+        }
+        BYTES.addAndGet(temp.length());
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        WRITTEN.incrementAndGet();
+        TIME.addAndGet(System.nanoTime() - time);
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coordinates a distributed FLASH traversal, in which processes on the same machine traverse
+ * different partitions of the solution space, see FLASHAlgorithmImpl.PARTITION_COUNT. The
+ * coordinator keeps the smallest information loss of all optima found so far. Workers publish the
+ * primitive information loss of their optimum when it improves and never wait for a response.
+ * Whenever the global minimum improves, the coordinator pushes it to all workers, where it is
+ * received in the background and used to prune transformations with larger lower bounds.<br>
+ * <br>
+ * The protocol consists of one double per message over a loopback socket.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHCoordinator implements Closeable {
+
+    /**
+     * A connection of a worker to the coordinator
+     *
+     * @author Fabian Prasser
+     */
+    public static class Client implements Closeable {
+
+        /** Number of values published by all clients */
+        private static final AtomicLong PUBLISHED = new AtomicLong();
+
+        /** Time spent publishing by all clients in nanoseconds */
+        private static final AtomicLong TIME      = new AtomicLong();
+
+        /**
+         * Returns the number of values published by all clients of this process
+         *
+         * @return
+         */
+        public static long getNumPublished() {
+            return PUBLISHED.get();
+        }
+
+        /**
+         * Returns the time spent publishing by all clients of this process in nanoseconds
+         *
+         * @return
+         */
+        public static long getTime() {
+            return TIME.get();
+        }
+
+        /** Socket */
+        private final Socket           socket;
+
+        /** Output */
+        private final DataOutputStream out;
+
+        /** The global minimum received last, or NaN */
+        private volatile double        optimum = Double.NaN;
+
+        /**
+         * Connects to the coordinator listening on the given local port
+         *
+         * @param port
+         * @throws IOException
+         */
+        public Client(int port) throws IOException {
+            this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            this.socket.setTcpNoDelay(true);
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Thread receiver = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    receive(in);
+                }
+            }, "FLASH coordinator client");
+            receiver.setDaemon(true);
+            receiver.start();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        /**
+         * Returns the global minimum received last, or NaN. Does not block.
+         *
+         * @return
+         */
+        public double getOptimum() {
+            return optimum;
+        }
+
+        /**
+         * Publishes the information loss of a local optimum. Does not wait for a response.
+         *
+         * @param value
+         * @throws IOException
+         */
+        public synchronized void publish(double value) throws IOException {
+            long time = System.nanoTime();
+            out.writeDouble(value);
+            out.flush();
+            update(value);
+            TIME.addAndGet(System.nanoTime() - time);
+            PUBLISHED.incrementAndGet();
+        }
+
+        /**
+         * Receives global minima until the connection is closed
+         *
+         * @param in
+         */
+        private void receive(DataInputStream in) {
+            try {
+                while (true) {
+                    update(in.readDouble());
+                }
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+
+        /**
+         * Updates the global minimum
+         *
+         * @param value
+         */
+        private synchronized void update(double value) {
+            if (Double.isNaN(optimum) || value < optimum) {
+                optimum = value;
+            }
+        }
+    }
+
+    /** Number of values received */
+    private final AtomicLong             requests = new AtomicLong();
+
+    /** Server socket */
+    private final ServerSocket           server;
+
+    /** Connections to the workers */
+    private final List<DataOutputStream> clients  = new ArrayList<DataOutputStream>();
+
+    /** The smallest information loss offered so far, or NaN */
+    private double                       optimum  = Double.NaN;
+
+    /**
+     * Creates a new coordinator listening on the given local port. Port 0 selects a free port.
+     *
+     * @param port
+     * @throws IOException
+     */
+    public FLASHCoordinator(int port) throws IOException {
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        }, "FLASH coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Returns the number of values received
+     *
+     * @return
+     */
+    public long getNumRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the smallest information loss offered so far, or NaN
+     *
+     * @return
+     */
+    public synchronized double getOptimum() {
+        return optimum;
+    }
+
+    /**
+     * Returns the port on which the coordinator listens
+     *
+     * @return
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the coordinator is closed
+     */
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                final Socket socket = server.accept();
+                Thread handler = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        handle(socket);
+                    }
+                }, "FLASH coordinator connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+
+    /**
+     * Receives the values of one worker until it disconnects
+     *
+     * @param socket
+     */
+    private void handle(Socket socket) {
+        DataOutputStream out = null;
+        try {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            register(out);
+            while (true) {
+                offer(in.readDouble());
+                requests.incrementAndGet();
+            }
+        } catch (IOException e) {
+            // Disconnected
+        } finally {
+            if (out != null) {
+                unregister(out);
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * Updates the optimum and pushes it to all workers, if it has improved. Values are sent without
+     * holding the monitor, so that a slow worker does not delay other connections. Workers may
+     * therefore receive values out of order, which is harmless, as they keep the minimum.
+     *
+     * @param value
+     */
+    private void offer(double value) {
+        List<DataOutputStream> targets;
+        synchronized (this) {
+            if (Double.isNaN(value) || (!Double.isNaN(optimum) && value >= optimum)) {
+                return;
+            }
+            optimum = value;
+            targets = new ArrayList<DataOutputStream>(clients);
+        }
+        for (DataOutputStream client : targets) {
+            send(client, value);
+        }
+    }
+
+    /**
+     * Registers a worker and sends the current optimum, if any
+     *
+     * @param out
+     */
+    private void register(DataOutputStream out) {
+        double value;
+        synchronized (this) {
+            clients.add(out);
+            value = optimum;
+        }
+        if (!Double.isNaN(value)) {
+            send(out, value);
+        }
+    }
+
+    /**
+     * Sends a value to a worker. Workers which have disconnected are removed.
+     *
+     * @param out
+     * @param value
+     */
+    private void send(DataOutputStream out, double value) {
+        try {
+            synchronized (out) {
+                out.writeDouble(value);
+                out.flush();
+            }
+        } catch (IOException e) {
+            unregister(out);
+        }
+    }
+
+    /**
+     * Unregisters a worker
+     *
+     * @param out
+     */
+    private synchronized void unregister(DataOutputStream out) {
+        clients.remove(out);
+    }
+}
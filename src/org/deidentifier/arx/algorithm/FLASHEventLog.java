@@ -0,0 +1,330 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A compact binary log of the events of a FLASH traversal. Events are appended to a ring of buffers,
+ * which are written to the file by a background thread and reused afterwards. If all buffers are
+ * waiting to be written, appending blocks, so that no events are lost.<br>
+ * <br>
+ * The file starts with a header consisting of MAGIC, VERSION and RECORD_SIZE. Each record consists of
+ * the time since the start of the traversal in nanoseconds, the identifier of the transformation, the
+ * duration of the action in nanoseconds, the level, the size of the queue, the phase, the action, the
+ * outcome and one byte of padding.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHEventLog implements Closeable {
+
+    /**
+     * An event read from a log
+     *
+     * @author Fabian Prasser
+     */
+    public static class Event {
+
+        /** Time since the start of the traversal in nanoseconds */
+        public long time;
+
+        /** Identifier of the transformation */
+        public long id;
+
+        /** Duration of the action in nanoseconds */
+        public long duration;
+
+        /** Level of the transformation */
+        public int  level;
+
+        /** Size of the queue */
+        public int  queue;
+
+        /** Phase */
+        public byte phase;
+
+        /** Action */
+        public byte action;
+
+        /** Outcome */
+        public byte outcome;
+
+        @Override
+        public String toString() {
+            return String.format("%14.3f[ms] %-6s %-8s id: %d, level: %d, outcome: %s, duration: %.3f[ms], queue: %d",
+                                 (double) time / 1000000d, PHASES[phase], ACTIONS[action], id, level,
+                                 OUTCOMES[outcome], (double) duration / 1000000d, queue);
+        }
+    }
+
+    /**
+     * Reads events from a log
+     *
+     * @author Fabian Prasser
+     */
+    public static class Reader implements Closeable {
+
+        /** Input */
+        private final DataInputStream in;
+
+        /**
+         * Opens the given log
+         *
+         * @param file
+         * @throws IOException
+         */
+        public Reader(File file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != RECORD_SIZE) {
+                in.close();
+                throw new IOException("Not an event log of this version: " + file);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        /**
+         * Reads the next event into the given instance. Returns false, if there are no more events.
+         *
+         * @param event
+         * @return
+         * @throws IOException
+         */
+        public boolean next(Event event) throws IOException {
+            try {
+                event.time = in.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            event.id = in.readLong();
+            event.duration = in.readLong();
+            event.level = in.readInt();
+            event.queue = in.readInt();
+            event.phase = in.readByte();
+            event.action = in.readByte();
+            event.outcome = in.readByte();
+            in.readByte();
+            return true;
+        }
+    }
+
+    /** Phase */
+    public static final byte     PHASE_BINARY          = 0;
+
+    /** Phase */
+    public static final byte     PHASE_LINEAR          = 1;
+
+    /** Action: the transformation has been checked */
+    public static final byte     ACTION_CHECK          = 0;
+
+    /** Action: the information loss of the transformation has been evaluated without a check */
+    public static final byte     ACTION_EVALUATE       = 1;
+
+    /** Action: the transformation has been pruned because of its lower bound */
+    public static final byte     ACTION_PRUNE          = 2;
+
+    /** Outcome */
+    public static final byte     OUTCOME_NONE          = 0;
+
+    /** Outcome */
+    public static final byte     OUTCOME_ANONYMOUS     = 1;
+
+    /** Outcome */
+    public static final byte     OUTCOME_NOT_ANONYMOUS = 2;
+
+    /** Names of phases */
+    public static final String[] PHASES                = new String[] { "binary", "linear" };
+
+    /** Names of actions */
+    public static final String[] ACTIONS               = new String[] { "check", "evaluate", "prune" };
+
+    /** Names of outcomes */
+    public static final String[] OUTCOMES              = new String[] { "none", "anonymous", "not-anonymous" };
+
+    /** Number of records per buffer */
+    public static int            BUFFER_RECORDS        = 1 << 12;
+
+    /** Number of buffers */
+    public static int            BUFFERS               = 8;
+
+    /** Magic number */
+    private static final int     MAGIC                 = 0x464c4556;
+
+    /** Version */
+    private static final int     VERSION               = 1;
+
+    /** Size of a record in bytes */
+    private static final int     RECORD_SIZE           = 36;
+
+    /** Buffers which can be filled */
+    private final BlockingQueue<ByteBuffer> free;
+
+    /** Buffers which need to be written */
+    private final BlockingQueue<ByteBuffer> full;
+
+    /** The buffer which is currently filled */
+    private ByteBuffer                      current;
+
+    /** Output */
+    private final FileChannel               channel;
+
+    /** Writer */
+    private final Thread                    writer;
+
+    /** Error of the writer, if any */
+    private volatile IOException            error;
+
+    /** Start time */
+    private final long                      start;
+
+    /**
+     * Creates a new log, replacing the given file
+     *
+     * @param file
+     * @throws IOException
+     */
+    public FLASHEventLog(File file) throws IOException {
+
+        // Buffers
+        this.free = new ArrayBlockingQueue<ByteBuffer>(BUFFERS);
+        this.full = new ArrayBlockingQueue<ByteBuffer>(BUFFERS);
+        for (int i = 1; i < BUFFERS; i++) {
+            free.add(ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE));
+        }
+        this.current = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE);
+
+        // Header
+        this.channel = new FileOutputStream(file).getChannel();
+        ByteBuffer header = ByteBuffer.allocate(12);
+        header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        // Writer
+        this.writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                write();
+            }
+        }, "FLASH event log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Appends an event
+     *
+     * @param id
+     * @param level
+     * @param queue
+     * @param phase
+     * @param action
+     * @param outcome
+     * @param duration
+     */
+    public synchronized void append(long id, int level, int queue, byte phase, byte action, byte outcome, long duration) {
+        current.putLong(System.nanoTime() - start);
+        current.putLong(id);
+        current.putLong(duration);
+        current.putInt(level);
+        current.putInt(queue);
+        current.put(phase);
+        current.put(action);
+        current.put(outcome);
+        current.put((byte) 0);
+        if (!current.hasRemaining()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all events and closes the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (current.position() > 0) {
+            flush();
+        }
+        try {
+            full.put(ByteBuffer.allocate(0));
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Hands the current buffer to the writer and continues with a free buffer
+     */
+    private void flush() {
+        try {
+            current.flip();
+            full.put(current);
+            current = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes buffers until an empty buffer is received
+     */
+    private void write() {
+        while (true) {
+            ByteBuffer buffer;
+            try {
+                buffer = full.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (buffer.capacity() == 0) {
+                return;
+            }
+            try {
+                while (buffer.hasRemaining() && error == null) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            buffer.clear();
+            free.add(buffer);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.deidentifier.arx.framework.check.NodeChecker;
+import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.Transformation;
+
+/**
+ * Resets the snapshot history of a checker when an estimate of its size exceeds a byte budget. The
+ * history itself only exposes its size, its storage strategy and a reset, so that single snapshots
+ * can not be evicted. This class therefore estimates its content: after each check, a growing history
+ * has stored a snapshot of the transformation, whose size is computed from the number of equivalence
+ * classes and the length of their entries. If the history shrinks on its own, snapshots of
+ * transformations whose successors are pruned are assumed to have been removed first. A history which
+ * replaces a snapshot without changing its size is not noticed, so that the estimate may drift until
+ * the next reset, after which it is exact again. The budget is therefore not a hard limit.<br>
+ * <br>
+ * If the estimated size exceeds the budget, snapshots of anonymous transformations are no longer
+ * stored. If this does not suffice, the history is reset, but only when the traversal leaves the
+ * current path, or when at least half of the bytes are held by snapshots whose successors are
+ * pruned. A check is counted as a hit, if a snapshot of a predecessor of the transformation is held.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHHistory {
+
+    /**
+     * A snapshot held by the history
+     *
+     * @author Fabian Prasser
+     */
+    private static class Snapshot {
+
+        /** The transformation */
+        private final Transformation transformation;
+
+        /** Its generalization */
+        private final int[]          generalization;
+
+        /** Size of the snapshot array in bytes */
+        private final long           bytes;
+
+        /**
+         * Creates a new instance
+         *
+         * @param transformation
+         * @param bytes
+         */
+        private Snapshot(Transformation transformation, long bytes) {
+            this.transformation = transformation;
+            this.generalization = transformation.getGeneralization();
+            this.bytes = bytes;
+        }
+    }
+
+    /** Estimated size of the snapshots of a checker in bytes above which its history is reset */
+    public static long              BUDGET          = Long.MAX_VALUE;
+
+    /** Decision of update(): nothing to do */
+    static final int                KEEP            = 0;
+
+    /** Decision of update(): exclude anonymous transformations */
+    static final int                DOWNGRADE       = 1;
+
+    /** Decision of update(): reset the history */
+    static final int                RESET           = 2;
+
+    /** Size of the header of an array in bytes */
+    private static final int        ARRAY_HEADER    = 16;
+
+    /** Number of checks */
+    private static final AtomicLong CHECKS          = new AtomicLong();
+
+    /** Number of checks for which a snapshot of a predecessor was held */
+    private static final AtomicLong HITS            = new AtomicLong();
+
+    /** Number of times the history has been cleared */
+    private static final AtomicLong EVICTIONS       = new AtomicLong();
+
+    /** Number of snapshots removed by clearing the history */
+    private static final AtomicLong EVICTED         = new AtomicLong();
+
+    /** Number of times anonymous transformations have been excluded */
+    private static final AtomicLong DOWNGRADES      = new AtomicLong();
+
+    /** Largest number of bytes held by one history */
+    private static final AtomicLong PEAK            = new AtomicLong();
+
+    /**
+     * Returns the number of snapshots removed by clearing histories
+     *
+     * @return
+     */
+    public static long getNumEvicted() {
+        return EVICTED.get();
+    }
+
+    /**
+     * Returns the number of times a history has been cleared
+     *
+     * @return
+     */
+    public static long getNumEvictions() {
+        return EVICTIONS.get();
+    }
+
+    /**
+     * Returns the share of checks for which a snapshot of a predecessor was held
+     *
+     * @return
+     */
+    public static double getHitRate() {
+        long checks = CHECKS.get();
+        return checks == 0 ? 0d : (double) HITS.get() / (double) checks;
+    }
+
+    /**
+     * Returns the largest number of bytes held by one history
+     *
+     * @return
+     */
+    public static long getPeakBytes() {
+        return PEAK.get();
+    }
+
+    /**
+     * Resets all counters
+     */
+    public static void reset() {
+        CHECKS.set(0);
+        HITS.set(0);
+        EVICTIONS.set(0);
+        EVICTED.set(0);
+        DOWNGRADES.set(0);
+        PEAK.set(0);
+    }
+
+    /**
+     * Returns a string representation of the counters
+     *
+     * @return
+     */
+    public static String toStatistics() {
+        return "History - checks: " + CHECKS.get() + ", hit rate: " + getHitRate() + ", peak bytes: " + getPeakBytes() +
+               ", evictions: " + getNumEvictions() + ", evicted: " + getNumEvicted() + ", downgrades: " + DOWNGRADES.get();
+    }
+
+    /** The checker */
+    private final NodeChecker    checker;
+
+    /** The solution space */
+    private final SolutionSpace  solutionSpace;
+
+    /** Snapshots held */
+    private final List<Snapshot> snapshots = new ArrayList<Snapshot>();
+
+    /** Bytes held */
+    private long                 bytes;
+
+    /** Whether anonymous transformations are excluded */
+    private boolean              downgraded;
+
+    /** Level of the previous check */
+    private int                  level     = -1;
+
+    /**
+     * Creates a new instance
+     *
+     * @param checker
+     * @param solutionSpace
+     * @param strategy
+     */
+    public FLASHHistory(NodeChecker checker, SolutionSpace solutionSpace, StorageStrategy strategy) {
+        this(checker, solutionSpace, strategy == StorageStrategy.NON_ANONYMOUS);
+        checker.getHistory().setStorageStrategy(strategy);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param checker
+     * @param solutionSpace
+     * @param downgraded Whether anonymous transformations are excluded
+     */
+    FLASHHistory(NodeChecker checker, SolutionSpace solutionSpace, boolean downgraded) {
+        this.checker = checker;
+        this.solutionSpace = solutionSpace;
+        this.downgraded = downgraded;
+    }
+
+    /**
+     * Checks the given transformation
+     *
+     * @param transformation
+     * @return
+     */
+    public NodeChecker.Result check(Transformation transformation) {
+
+        // Hit
+        History history = checker.getHistory();
+        CHECKS.incrementAndGet();
+        if (isPredecessorHeld(transformation)) {
+            HITS.incrementAndGet();
+        }
+
+        // Check
+        int size = history.size();
+        NodeChecker.Result result = checker.check(transformation);
+
+        // Budget
+        switch (update(transformation, history.size() > size ? getSnapshotBytes() : -1L, history.size())) {
+        case DOWNGRADE:
+            history.setStorageStrategy(StorageStrategy.NON_ANONYMOUS);
+            break;
+        case RESET:
+            history.reset();
+            break;
+        default:
+            break;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes held
+     *
+     * @return
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the size of the snapshot of the current groupify. Snapshots are int arrays with
+     * one entry of the configuration's snapshot length per equivalence class.
+     *
+     * @return
+     */
+    private long getSnapshotBytes() {
+        long classes = checker.getGroupify().getNumberOfEquivalenceClasses();
+        return ARRAY_HEADER + classes * checker.getConfiguration().getSnapshotLength() * 4L;
+    }
+
+    /**
+     * Returns the bytes held by snapshots whose successors are pruned
+     *
+     * @return
+     */
+    private long getDeadBytes() {
+        long dead = 0L;
+        for (Snapshot snapshot : snapshots) {
+            if (snapshot.transformation.hasProperty(solutionSpace.getPropertySuccessorsPruned())) {
+                dead += snapshot.bytes;
+            }
+        }
+        return dead;
+    }
+
+    /**
+     * Returns whether a snapshot of a predecessor of the given transformation is held
+     *
+     * @param transformation
+     * @return
+     */
+    private boolean isPredecessorHeld(Transformation transformation) {
+        if (snapshots.isEmpty()) {
+            return false;
+        }
+        int[] generalization = transformation.getGeneralization();
+        outer: for (Snapshot snapshot : snapshots) {
+            for (int i = 0; i < generalization.length; i++) {
+                if (snapshot.generalization[i] > generalization[i]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes snapshots from the mirror until it has the given size. Snapshots of transformations
+     * whose successors are pruned are removed first, then the oldest ones.
+     *
+     * @param size
+     */
+    private void shrink(int size) {
+        for (Iterator<Snapshot> iter = snapshots.iterator(); snapshots.size() > size && iter.hasNext();) {
+            Snapshot snapshot = iter.next();
+            if (snapshot.transformation.hasProperty(solutionSpace.getPropertySuccessorsPruned())) {
+                bytes -= snapshot.bytes;
+                iter.remove();
+            }
+        }
+        while (snapshots.size() > size) {
+            bytes -= snapshots.remove(0).bytes;
+        }
+    }
+
+    /**
+     * Updates the estimate after a check of the given transformation and decides whether the
+     * history must be downgraded or reset to remain within the budget
+     *
+     * @param transformation
+     * @param stored Size of the snapshot stored by the check in bytes, or -1 if none was stored
+     * @param size Number of snapshots held by the history after the check
+     * @return KEEP, DOWNGRADE or RESET
+     */
+    int update(Transformation transformation, long stored, int size) {
+
+        // Mirror
+        if (stored >= 0L) {
+            Snapshot snapshot = new Snapshot(transformation, stored);
+            snapshots.add(snapshot);
+            bytes += snapshot.bytes;
+        }
+        shrink(size);
+        updatePeak();
+
+        // Budget
+        boolean boundary = level != -1 && transformation.getLevel() <= level;
+        level = transformation.getLevel();
+        if (bytes > BUDGET) {
+            if (!downgraded) {
+                downgraded = true;
+                DOWNGRADES.incrementAndGet();
+                return DOWNGRADE;
+            } else if (boundary || getDeadBytes() * 2L >= bytes) {
+                EVICTIONS.incrementAndGet();
+                EVICTED.addAndGet(snapshots.size());
+                snapshots.clear();
+                bytes = 0L;
+                return RESET;
+            }
+        }
+        return KEEP;
+    }
+
+    /**
+     * Updates the peak
+     */
+    private void updatePeak() {
+        long peak = PEAK.get();
+        while (bytes > peak && !PEAK.compareAndSet(peak, bytes)) {
+            peak = PEAK.get();
+        }
+    }
+}
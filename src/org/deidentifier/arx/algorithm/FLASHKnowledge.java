@@ -0,0 +1,226 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.criteria.PrivacyCriterion;
+import org.deidentifier.arx.framework.check.NodeChecker;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+
+/**
+ * Knowledge about the solution space of a previous anonymization: the frontier between anonymous and
+ * non-anonymous transformations and the optimum. Knowledge is stored per signature, which consists of
+ * the shape of the solution space, the privacy criteria, the suppression limit and the metric. It does
+ * not cover the data itself, so that it can be reused when the data changes. Previous results are only
+ * used to choose which transformations are checked first, so outdated knowledge costs checks but does
+ * not affect the result.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHKnowledge implements Serializable {
+
+    /** SVUID */
+    private static final long       serialVersionUID = -6402513771893547610L;
+
+    /** Number of transformations checked first */
+    private static final AtomicLong SEEDED           = new AtomicLong();
+
+    /** Number of transformations whose anonymity has been confirmed */
+    private static final AtomicLong CONFIRMED        = new AtomicLong();
+
+    /**
+     * Returns the number of transformations whose anonymity has been confirmed
+     *
+     * @return
+     */
+    public static long getNumConfirmed() {
+        return CONFIRMED.get();
+    }
+
+    /**
+     * Returns the number of transformations checked first
+     *
+     * @return
+     */
+    public static long getNumSeeded() {
+        return SEEDED.get();
+    }
+
+    /**
+     * Returns the signature of the given anonymization problem
+     *
+     * @param solutionSpace
+     * @param checker
+     * @return
+     */
+    public static String getSignature(SolutionSpace solutionSpace, NodeChecker checker) {
+        ARXConfiguration config = checker.getConfiguration();
+        List<String> criteria = new ArrayList<String>();
+        for (PrivacyCriterion criterion : config.getCriteria()) {
+            criteria.add(criterion.toString());
+        }
+        Collections.sort(criteria);
+        return "Top: " + Arrays.toString(solutionSpace.getTop().getGeneralization()) +
+               ", size: " + solutionSpace.getSize() +
+               ", criteria: " + criteria +
+               ", suppression limit: " + config.getMaxOutliers() +
+               ", metric: " + checker.getMetric();
+    }
+
+    /**
+     * Reads the knowledge for the given signature from the given directory. Returns null, if
+     * there is none.
+     *
+     * @param directory
+     * @param signature
+     * @return
+     * @throws IOException
+     */
+    public static FLASHKnowledge read(File directory, String signature) throws IOException {
+        File file = getFile(directory, signature);
+        if (!file.exists()) {
+            return null;
+        }
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            FLASHKnowledge knowledge = (FLASHKnowledge) in.readObject();
+            return knowledge.signature.equals(signature) ? knowledge : null;
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Resets all counters
+     */
+    public static void reset() {
+        SEEDED.set(0);
+        CONFIRMED.set(0);
+    }
+
+    /**
+     * Returns a string representation of the counters
+     *
+     * @return
+     */
+    public static String toStatistics() {
+        return "Knowledge - checked first: " + getNumSeeded() + ", confirmed: " + getNumConfirmed();
+    }
+
+    /**
+     * Counts a transformation which has been checked first
+     *
+     * @param confirmed
+     */
+    static void addSeeded(boolean confirmed) {
+        SEEDED.incrementAndGet();
+        if (confirmed) {
+            CONFIRMED.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the file for the given signature
+     *
+     * @param directory
+     * @param signature
+     * @return
+     */
+    private static File getFile(File directory, String signature) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(signature.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder("flash-");
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return new File(directory, builder.append(".knowledge").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** The signature */
+    final String signature;
+
+    /** Minimal anonymous transformations */
+    final long[] anonymous;
+
+    /** Maximal non-anonymous transformations */
+    final long[] notAnonymous;
+
+    /** The optimum, or -1 */
+    final long   optimum;
+
+    /**
+     * Creates a new instance
+     *
+     * @param signature
+     * @param anonymous
+     * @param notAnonymous
+     * @param optimum
+     */
+    FLASHKnowledge(String signature, long[] anonymous, long[] notAnonymous, long optimum) {
+        this.signature = signature;
+        this.anonymous = anonymous;
+        this.notAnonymous = notAnonymous;
+        this.optimum = optimum;
+    }
+
+    /**
+     * Writes this knowledge to the given directory, replacing previous knowledge with the same signature
+     *
+     * @param directory
+     * @throws IOException
+     */
+    void write(File directory) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory: " + directory);
+        }
+        File file = getFile(directory, signature);
+        File temp = new File(file.getPath() + ".tmp");
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+        try {
+            out.writeObject(this);
+        } finally {
+            out.close();
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
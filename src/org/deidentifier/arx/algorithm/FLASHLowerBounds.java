@@ -0,0 +1,301 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.deidentifier.arx.metric.InformationLoss;
+import org.deidentifier.arx.metric.Metric;
+
+import com.carrotsearch.hppc.LongDoubleOpenHashMap;
+
+/**
+ * Primitive representations of the lower bounds of transformations. The representation of a bound
+ * is its value, if the value is a number, and ARX's measures compare information loss by this value
+ * first. Decisions are therefore only taken on the primitives if they differ. Equal or unknown
+ * primitives require a comparison of the objects.<br>
+ * <br>
+ * Bounds are stored in a dense array for solution spaces with at most MAX_DENSE_SIZE transformations
+ * and in a hash map otherwise. Bounds of a level can be computed in batches. Each chunk of a batch is
+ * computed with the metric of another checker, because metrics are not guaranteed to be thread-safe.
+ * Batches are therefore only computed in parallel if there are several checkers, see
+ * FLASHAlgorithmImpl.THREADS, using a pool of threads which is reused until shutdown() is called.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHLowerBounds {
+
+    /** Maximal size of solution spaces for which bounds are stored in a dense array */
+    public static long                  MAX_DENSE_SIZE = 1L << 22;
+
+    /** Number of transformations per batch */
+    public static int                   BATCH_SIZE     = 1 << 14;
+
+    /** Number of decisions taken on primitives */
+    private static final AtomicLong     PRIMITIVE      = new AtomicLong();
+
+    /** Number of decisions which required objects */
+    private static final AtomicLong     OBJECT         = new AtomicLong();
+
+    /** Number of bounds computed in batches */
+    private static final AtomicLong     COMPUTED       = new AtomicLong();
+
+    /** Time spent computing batches in nanoseconds */
+    private static final AtomicLong     TIME           = new AtomicLong();
+
+    /**
+     * Returns the number of bounds computed in batches
+     *
+     * @return
+     */
+    public static long getNumComputed() {
+        return COMPUTED.get();
+    }
+
+    /**
+     * Returns the number of decisions which required a comparison of objects
+     *
+     * @return
+     */
+    public static long getNumObjectDecisions() {
+        return OBJECT.get();
+    }
+
+    /**
+     * Returns the number of decisions taken on primitives
+     *
+     * @return
+     */
+    public static long getNumPrimitiveDecisions() {
+        return PRIMITIVE.get();
+    }
+
+    /**
+     * Returns the time spent computing batches in nanoseconds
+     *
+     * @return
+     */
+    public static long getTime() {
+        return TIME.get();
+    }
+
+    /**
+     * Returns the primitive representation of the given information loss, or NaN
+     *
+     * @param loss
+     * @return
+     */
+    public static double toPrimitive(InformationLoss<?> loss) {
+        if (loss == null) {
+            return Double.NaN;
+        }
+        Object value = loss.getValue();
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Resets all counters
+     */
+    public static void reset() {
+        PRIMITIVE.set(0);
+        OBJECT.set(0);
+        COMPUTED.set(0);
+        TIME.set(0);
+    }
+
+    /**
+     * Returns a string representation of the counters
+     *
+     * @return
+     */
+    public static String toStatistics() {
+        return "Lower bounds - primitive decisions: " + getNumPrimitiveDecisions() + ", object decisions: " +
+               getNumObjectDecisions() + ", computed in batches: " + getNumComputed() + ", time: " +
+               ((double) getTime() / 1000000d) + "[ms]";
+    }
+
+    /**
+     * Counts a decision
+     *
+     * @param primitive
+     */
+    static void addDecision(boolean primitive) {
+        (primitive ? PRIMITIVE : OBJECT).incrementAndGet();
+    }
+
+    /** Dense storage */
+    private final double[]              dense;
+
+    /** Sparse storage */
+    private final LongDoubleOpenHashMap sparse;
+
+    /** Threads for computing batches, created when needed */
+    private ExecutorService             executor;
+
+    /**
+     * Creates a new instance
+     *
+     * @param solutionSpace
+     */
+    public FLASHLowerBounds(SolutionSpace solutionSpace) {
+        if (solutionSpace.getSize() <= MAX_DENSE_SIZE) {
+            this.dense = new double[(int) solutionSpace.getSize()];
+            Arrays.fill(this.dense, Double.NaN);
+            this.sparse = null;
+        } else {
+            this.dense = null;
+            this.sparse = new LongDoubleOpenHashMap();
+        }
+    }
+
+    /**
+     * Computes the bounds of the given transformations, which must not have a bound, and stores them
+     * in the transformations and in this cache. Computed in parallel, if more than one metric is given.
+     *
+     * @param transformations
+     * @param metrics
+     */
+    public void compute(final List<Transformation> transformations, Metric<?>[] metrics) {
+
+        // Check
+        final int size = transformations.size();
+        if (size == 0) {
+            return;
+        }
+
+        // Compute
+        long time = System.nanoTime();
+        final InformationLoss<?>[] bounds = new InformationLoss<?>[size];
+        int chunks = Math.max(1, Math.min(metrics.length, size / 64));
+        if (chunks == 1) {
+            for (int i = 0; i < size; i++) {
+                bounds[i] = metrics[0].getLowerBound(transformations.get(i));
+            }
+        } else {
+            if (executor == null) {
+                executor = Executors.newFixedThreadPool(metrics.length, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "FLASHLowerBounds");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            try {
+                List<Future<Void>> futures = new ArrayList<Future<Void>>();
+                int chunkSize = (size + chunks - 1) / chunks;
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    final int from = Math.min(size, chunk * chunkSize);
+                    final int to = Math.min(size, from + chunkSize);
+                    final Metric<?> metric = metrics[chunk];
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            for (int i = from; i < to; i++) {
+                                bounds[i] = metric.getLowerBound(transformations.get(i));
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                for (Future<Void> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        // Store
+        for (int i = 0; i < size; i++) {
+            if (bounds[i] != null) {
+                Transformation transformation = transformations.get(i);
+                transformation.setLowerBound(bounds[i]);
+                put(transformation.getIdentifier(), bounds[i]);
+            }
+        }
+        COMPUTED.addAndGet(size);
+        TIME.addAndGet(System.nanoTime() - time);
+    }
+
+    /**
+     * Returns the primitive representation of the bound of the given transformation, or NaN
+     *
+     * @param id
+     * @return
+     */
+    public double get(long id) {
+        if (dense != null) {
+            return dense[(int) id];
+        }
+        return sparse.containsKey(id) ? sparse.lget() : Double.NaN;
+    }
+
+    /**
+     * Returns whether the bound of the given transformation is known
+     *
+     * @param id
+     * @return
+     */
+    public boolean isKnown(long id) {
+        return !Double.isNaN(get(id));
+    }
+
+    /**
+     * Stops the threads for computing batches
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Stores the bound of the given transformation, if it has a primitive representation
+     *
+     * @param id
+     * @param bound
+     */
+    public void put(long id, InformationLoss<?> bound) {
+        double value = toPrimitive(bound);
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (dense != null) {
+            dense[(int) id] = value;
+        } else {
+            sparse.put(id, value);
+        }
+    }
+}
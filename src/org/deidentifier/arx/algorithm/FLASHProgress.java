@@ -0,0 +1,205 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+/**
+ * The state of a traversal, as reported to a listener registered with FLASHAlgorithmImpl.PROGRESS_LISTENER.
+ * Transformations are counted as pruned, if they have been excluded without being checked. The estimated
+ * time remaining assumes that all transformations which are neither checked nor pruned will be checked
+ * at the current throughput, it is therefore an upper bound in most cases.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHProgress {
+
+    /**
+     * Receives progress events
+     *
+     * @author Fabian Prasser
+     */
+    public static interface Listener {
+
+        /**
+         * Called at most once per FLASHProgressTracker.INTERVAL and once at the end of a traversal
+         *
+         * @param progress
+         */
+        public void progress(FLASHProgress progress);
+    }
+
+    /** Phase of an algorithm which replaces FLASH, see FLASHAlgorithmImpl.ALGORITHM_FACTORY */
+    public static final String PHASE_ALGORITHM  = "algorithm";
+
+    /** Number of checked transformations */
+    private final long         checked;
+
+    /** Number of pruned transformations */
+    private final long         pruned;
+
+    /** Size of the solution space */
+    private final long         size;
+
+    /** Current phase */
+    private final String       phase;
+
+    /** Level of the last checked transformation, -1 if unknown */
+    private final int          level;
+
+    /** Checks per second */
+    private final double       throughput;
+
+    /** Estimated time remaining in milliseconds, -1 if unknown */
+    private final long         remainingTime;
+
+    /** Time elapsed in milliseconds */
+    private final long         elapsedTime;
+
+    /** Whether the traversal is complete */
+    private final boolean      done;
+
+    /**
+     * Creates a new instance
+     *
+     * @param checked
+     * @param pruned
+     * @param size
+     * @param phase
+     * @param level
+     * @param throughput
+     * @param remainingTime
+     * @param elapsedTime
+     * @param done
+     */
+    FLASHProgress(long checked,
+                  long pruned,
+                  long size,
+                  String phase,
+                  int level,
+                  double throughput,
+                  long remainingTime,
+                  long elapsedTime,
+                  boolean done) {
+        this.checked = checked;
+        this.pruned = pruned;
+        this.size = size;
+        this.phase = phase;
+        this.level = level;
+        this.throughput = throughput;
+        this.remainingTime = remainingTime;
+        this.elapsedTime = elapsedTime;
+        this.done = done;
+    }
+
+    /**
+     * Returns the number of checked transformations
+     *
+     * @return
+     */
+    public long getChecked() {
+        return checked;
+    }
+
+    /**
+     * Returns the time elapsed since the start of the traversal in milliseconds
+     *
+     * @return
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Returns the level of the last checked transformation, -1 if unknown
+     *
+     * @return
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the current phase, see FLASHEventLog.PHASES and PHASE_ALGORITHM
+     *
+     * @return
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the number of pruned transformations
+     *
+     * @return
+     */
+    public long getPruned() {
+        return pruned;
+    }
+
+    /**
+     * Returns the number of transformations which are neither checked nor pruned
+     *
+     * @return
+     */
+    public long getRemaining() {
+        return Math.max(0L, size - checked - pruned);
+    }
+
+    /**
+     * Returns the estimated time remaining in milliseconds, -1 if unknown
+     *
+     * @return
+     */
+    public long getRemainingTime() {
+        return remainingTime;
+    }
+
+    /**
+     * Returns the size of the solution space
+     *
+     * @return
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of checks per second within the last FLASHProgressTracker.WINDOW
+     *
+     * @return
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns whether the traversal is complete
+     *
+     * @return
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public String toString() {
+        return "Progress - phase: " + phase + ", level: " + level + ", checked: " + checked + ", pruned: " + pruned +
+               ", remaining: " + getRemaining() + "/" + size + ", checks/s: " + String.format("%.3f", throughput) +
+               ", elapsed: " + elapsedTime + "[ms], remaining: " + (remainingTime < 0 ? "unknown" : remainingTime + "[ms]") +
+               (done ? ", done" : "");
+    }
+}
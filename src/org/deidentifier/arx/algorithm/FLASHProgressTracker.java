@@ -0,0 +1,185 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+/**
+ * Tracks the progress of a traversal and notifies a listener at most once per INTERVAL. Updates only
+ * store counters and compare the current time against the next deadline, so that they can be called
+ * for every check. Pruned transformations are counted once each, if the solution space is small enough
+ * for a FLASHBitSet. The throughput is computed from samples taken at each notification within the
+ * last WINDOW.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHProgressTracker {
+
+    /** Minimal time between two notifications in milliseconds */
+    public static long                   INTERVAL = 1000L;
+
+    /** Length of the window for measuring throughput in milliseconds */
+    public static long                   WINDOW   = 10000L;
+
+    /** Maximal number of samples */
+    private static final int             SAMPLES  = 64;
+
+    /** The listener */
+    private final FLASHProgress.Listener listener;
+
+    /** Size of the solution space */
+    private final long                   size;
+
+    /** Pruned transformations, or null */
+    private final FLASHBitSet            prunedSet;
+
+    /** Start time */
+    private final long                   start;
+
+    /** Time of the next notification */
+    private long                         next;
+
+    /** Number of checked transformations */
+    private long                         checked;
+
+    /** Number of pruned transformations */
+    private long                         pruned;
+
+    /** Current phase */
+    private String                       phase;
+
+    /** Level of the last checked transformation */
+    private int                          level    = -1;
+
+    /** Times of samples */
+    private final long[]                 times    = new long[SAMPLES];
+
+    /** Checks of samples */
+    private final long[]                 checks   = new long[SAMPLES];
+
+    /** Index of the oldest sample */
+    private int                          first;
+
+    /** Number of samples */
+    private int                          samples;
+
+    /**
+     * Creates a new instance
+     *
+     * @param listener
+     * @param size
+     */
+    public FLASHProgressTracker(FLASHProgress.Listener listener, long size) {
+        this.listener = listener;
+        this.size = size;
+        this.prunedSet = size <= FLASHBitSet.MAX_SIZE ? new FLASHBitSet(size) : null;
+        this.start = System.nanoTime();
+        this.next = start + INTERVAL * 1000000L;
+        this.phase = FLASHEventLog.PHASES[FLASHEventLog.PHASE_BINARY];
+        sample(start);
+    }
+
+    /**
+     * Updates the number of checked transformations and notifies the listener, if due
+     *
+     * @param checked
+     * @param level
+     * @param phase
+     */
+    public synchronized void check(long checked, int level, String phase) {
+        this.checked = checked;
+        this.level = level;
+        this.phase = phase;
+        long now = System.nanoTime();
+        if (now >= next) {
+            next = now + INTERVAL * 1000000L;
+            publish(now, false);
+        }
+    }
+
+    /**
+     * Notifies the listener about the end of the traversal
+     */
+    public synchronized void finish() {
+        publish(System.nanoTime(), true);
+    }
+
+    /**
+     * Counts the given transformation as pruned
+     *
+     * @param id
+     */
+    public synchronized void prune(long id) {
+        if (prunedSet == null) {
+            pruned++;
+        } else if (!prunedSet.get(id)) {
+            prunedSet.set(id);
+            pruned++;
+        }
+    }
+
+    /**
+     * Restarts measuring throughput from the given number of checks, e.g. after resuming from a checkpoint
+     *
+     * @param checked
+     */
+    public synchronized void resume(long checked) {
+        this.checked = checked;
+        this.samples = 0;
+        sample(System.nanoTime());
+    }
+
+    /**
+     * Notifies the listener
+     *
+     * @param now
+     * @param done
+     */
+    private void publish(long now, boolean done) {
+
+        // Throughput within the window
+        sample(now);
+        while (samples > 1 && now - times[(first + 1) % SAMPLES] >= WINDOW * 1000000L) {
+            first = (first + 1) % SAMPLES;
+            samples--;
+        }
+        long duration = now - times[first];
+        double throughput = duration > 0L ? (double) (checked - checks[first]) * 1000000000d / (double) duration : 0d;
+
+        // Remaining time
+        long remaining = Math.max(0L, size - checked - pruned);
+        long remainingTime = done ? 0L : throughput > 0d ? (long) ((double) remaining / throughput * 1000d) : -1L;
+
+        listener.progress(new FLASHProgress(checked, pruned, size, phase, level, throughput, remainingTime,
+                                            (now - start) / 1000000L, done));
+    }
+
+    /**
+     * Adds a sample, replacing the oldest one if necessary
+     *
+     * @param now
+     */
+    private void sample(long now) {
+        if (samples == SAMPLES) {
+            first = (first + 1) % SAMPLES;
+            samples--;
+        }
+        int index = (first + samples) % SAMPLES;
+        times[index] = now;
+        checks[index] = checked;
+        samples++;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.Arrays;
+
+import com.carrotsearch.hppc.LongArrayList;
+
+/**
+ * Transformations that may be pruned because of insufficient utility, once a better optimum
+ * has been found. Implemented as a max-heap of identifiers ordered by the primitive representations
+ * of their lower bounds, see FLASHLowerBounds.toPrimitive(), so that the candidates whose lower bound
+ * is not smaller than a new optimum can be removed without scanning all candidates. The smallest
+ * bound is tracked when candidates are added and recomputed from the leaves of the heap when its
+ * candidate is removed. Candidates whose bounds have no primitive representation are kept
+ * unranked and must be compared one by one.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHPruningCandidates {
+
+    /** Identifiers in heap order */
+    private long[]              ids;
+
+    /** Lower bounds in heap order */
+    private double[]            bounds;
+
+    /** Number of elements */
+    private int                 size     = 0;
+
+    /** Identifier of a candidate with the smallest lower bound */
+    private long                minimum  = -1L;
+
+    /** The smallest lower bound */
+    private double              minimumBound;
+
+    /** Candidates without primitive lower bounds */
+    private final LongArrayList unranked = new LongArrayList();
+
+    /**
+     * Creates a new instance
+     */
+    public FLASHPruningCandidates() {
+        this.ids = new long[16];
+        this.bounds = new double[16];
+    }
+
+    /**
+     * Adds a candidate
+     *
+     * @param id
+     * @param bound The primitive lower bound, or NaN
+     */
+    public void add(long id, double bound) {
+
+        // Unranked
+        if (Double.isNaN(bound)) {
+            unranked.add(id);
+            return;
+        }
+
+        // Grow
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size << 1);
+            bounds = Arrays.copyOf(bounds, size << 1);
+        }
+
+        // Minimum
+        if (size == 0 || bound < getMinimalBound()) {
+            minimum = id;
+            minimumBound = bound;
+        }
+
+        // Sift up
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (bounds[parent] >= bound) {
+                break;
+            }
+            ids[index] = ids[parent];
+            bounds[index] = bounds[parent];
+            index = parent;
+        }
+        ids[index] = id;
+        bounds[index] = bound;
+    }
+
+    /**
+     * Removes all candidates
+     */
+    public void clear() {
+        size = 0;
+        minimum = -1L;
+        unranked.clear();
+    }
+
+    /**
+     * Returns the lower bounds of all candidates, in the order of getIdentifiers(). Unranked
+     * candidates have a bound of NaN.
+     *
+     * @return
+     */
+    public double[] getBounds() {
+        double[] result = Arrays.copyOf(bounds, size + unranked.size());
+        Arrays.fill(result, size, result.length, Double.NaN);
+        return result;
+    }
+
+    /**
+     * Returns the identifiers of all candidates in no particular order
+     *
+     * @return
+     */
+    public long[] getIdentifiers() {
+        long[] result = Arrays.copyOf(ids, size + unranked.size());
+        System.arraycopy(unranked.buffer, 0, result, size, unranked.size());
+        return result;
+    }
+
+    /**
+     * Returns the smallest primitive lower bound, or NaN
+     *
+     * @return
+     */
+    public double getMinimalBound() {
+        return size == 0 ? Double.NaN : minimumBound;
+    }
+
+    /**
+     * Returns the identifier of a candidate with the smallest primitive lower bound, or -1
+     *
+     * @return
+     */
+    public long getMinimalIdentifier() {
+        return size == 0 ? -1L : minimum;
+    }
+
+    /**
+     * Returns the candidates without primitive lower bounds. Elements may be removed by the caller.
+     *
+     * @return
+     */
+    public LongArrayList getUnranked() {
+        return unranked;
+    }
+
+    /**
+     * Returns whether there is a candidate with a lower bound which is larger than or equal
+     * to the given primitive information loss
+     *
+     * @param optimum
+     * @return
+     */
+    public boolean hasNext(double optimum) {
+        return size > 0 && optimum <= bounds[0];
+    }
+
+    /**
+     * Returns whether there are no candidates
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return size == 0 && unranked.isEmpty();
+    }
+
+    /**
+     * Returns the largest primitive lower bound, or NaN
+     *
+     * @return
+     */
+    public double peekBound() {
+        return size == 0 ? Double.NaN : bounds[0];
+    }
+
+    /**
+     * Removes and returns the candidate with the largest lower bound
+     *
+     * @return
+     */
+    public long poll() {
+        if (size == 0) {
+            throw new IllegalStateException("No candidates");
+        }
+
+        // Remove head
+        long result = ids[0];
+        size--;
+
+        // Sift down
+        long id = ids[size];
+        double bound = bounds[size];
+        if (size > 0) {
+            int index = 0;
+            int half = size >>> 1;
+            while (index < half) {
+                int child = (index << 1) + 1;
+                int right = child + 1;
+                if (right < size && bounds[right] > bounds[child]) {
+                    child = right;
+                }
+                if (bounds[child] <= bound) {
+                    break;
+                }
+                ids[index] = ids[child];
+                bounds[index] = bounds[child];
+                index = child;
+            }
+            ids[index] = id;
+            bounds[index] = bound;
+        }
+
+        // The smallest bound is stored in a leaf. Identifiers may be contained more than once.
+        if (result == minimum) {
+            minimum = -1L;
+            for (int i = size >>> 1; i < size; i++) {
+                if (minimum == -1L || bounds[i] < minimumBound) {
+                    minimum = ids[i];
+                    minimumBound = bounds[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of candidates
+     *
+     * @return
+     */
+    public int size() {
+        return size + unranked.size();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.Arrays;
+
+import com.carrotsearch.hppc.LongOpenHashSet;
+
+/**
+ * A primitive min-heap of transformation identifiers for the binary phase of FLASH. Elements are
+ * ordered by precomputed keys. An identifier that is already contained in the queue is not added again.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHQueue {
+
+    /** The keys */
+    private final FLASHStrategyKeys keys;
+
+    /** Identifiers in heap order */
+    private long[]                  heap;
+
+    /** Keys of the identifiers in heap order */
+    private long[]                  heapKeys;
+
+    /** Number of elements */
+    private int                     size      = 0;
+
+    /** Identifiers contained in the queue */
+    private final LongOpenHashSet   contained = new LongOpenHashSet();
+
+    /**
+     * Creates a new instance
+     *
+     * @param keys
+     * @param capacity
+     */
+    public FLASHQueue(FLASHStrategyKeys keys, int capacity) {
+        this.keys = keys;
+        this.heap = new long[Math.max(capacity, 16)];
+        this.heapKeys = new long[this.heap.length];
+    }
+
+    /**
+     * Adds an identifier, if it is not already contained
+     *
+     * @param id
+     */
+    public void add(long id) {
+
+        // Suppress duplicates
+        if (!contained.add(id)) {
+            return;
+        }
+
+        // Grow
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+            heapKeys = Arrays.copyOf(heapKeys, size << 1);
+        }
+
+        // Sift up
+        long key = keys.getKey(id);
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(id, key, heap[parent], heapKeys[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heapKeys[index] = heapKeys[parent];
+            index = parent;
+        }
+        heap[index] = id;
+        heapKeys[index] = key;
+    }
+
+    /**
+     * Removes all elements
+     */
+    public void clear() {
+        size = 0;
+        contained.clear();
+    }
+
+    /**
+     * Returns whether the queue is empty
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes and returns the smallest element
+     *
+     * @return
+     */
+    public long poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+
+        // Remove head
+        long result = heap[0];
+        contained.remove(result);
+        size--;
+
+        // Sift down
+        if (size > 0) {
+            long id = heap[size];
+            long key = heapKeys[size];
+            int index = 0;
+            int half = size >>> 1;
+            while (index < half) {
+                int child = (index << 1) + 1;
+                int right = child + 1;
+                if (right < size && less(heap[right], heapKeys[right], heap[child], heapKeys[child])) {
+                    child = right;
+                }
+                if (!less(heap[child], heapKeys[child], id, key)) {
+                    break;
+                }
+                heap[index] = heap[child];
+                heapKeys[index] = heapKeys[child];
+                index = child;
+            }
+            heap[index] = id;
+            heapKeys[index] = key;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of elements
+     *
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the elements in no particular order
+     *
+     * @return
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    /**
+     * Compares by key and identifier
+     *
+     * @param id1
+     * @param key1
+     * @param id2
+     * @param key2
+     * @return
+     */
+    private boolean less(long id1, long key1, long id2, long key2) {
+        return key1 < key2 || (key1 == key2 && id1 < id2);
+    }
+}
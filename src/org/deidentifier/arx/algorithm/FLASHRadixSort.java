@@ -0,0 +1,254 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A stable least-significant-digit radix sort of values by non-negative int keys. Passes over
+ * digits which are zero for all keys are skipped. Large arrays are sorted in parallel: each
+ * thread counts and scatters one chunk of the input.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHRadixSort {
+
+    /** Minimal number of elements per thread */
+    public static int        MIN_PARALLEL_CHUNK_SIZE = 1 << 16;
+
+    /** Bits per digit */
+    private static final int BITS                    = 8;
+
+    /** Number of buckets */
+    private static final int BUCKETS                 = 1 << BITS;
+
+    /**
+     * Sorts the values by the keys. Both arrays are sorted.
+     *
+     * @param keys
+     * @param values
+     * @param threads
+     */
+    public static void sort(int[] keys, long[] values, int threads) {
+
+        // Check
+        final int size = keys.length;
+        if (size < 2) {
+            return;
+        }
+
+        // Determine digits
+        int max = 0;
+        for (int key : keys) {
+            max |= key;
+        }
+
+        // Prepare
+        int chunks = Math.max(1, Math.min(threads, size / MIN_PARALLEL_CHUNK_SIZE));
+        ExecutorService executor = chunks > 1 ? Executors.newFixedThreadPool(chunks) : null;
+        int[] keysFrom = keys;
+        long[] valuesFrom = values;
+        int[] keysTo = new int[size];
+        long[] valuesTo = new long[size];
+
+        // Sort
+        try {
+            for (int shift = 0; shift < 32 && (max >>> shift) != 0; shift += BITS) {
+                if (executor == null) {
+                    pass(keysFrom, valuesFrom, keysTo, valuesTo, shift);
+                } else {
+                    pass(keysFrom, valuesFrom, keysTo, valuesTo, shift, chunks, executor);
+                }
+                int[] keysTemp = keysFrom;
+                keysFrom = keysTo;
+                keysTo = keysTemp;
+                long[] valuesTemp = valuesFrom;
+                valuesFrom = valuesTo;
+                valuesTo = valuesTemp;
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        // Copy back
+        if (keysFrom != keys) {
+            System.arraycopy(keysFrom, 0, keys, 0, size);
+            System.arraycopy(valuesFrom, 0, values, 0, size);
+        }
+    }
+
+    /**
+     * Counts the digits of the given range
+     *
+     * @param keys
+     * @param from
+     * @param to
+     * @param shift
+     * @return
+     */
+    private static int[] count(int[] keys, int from, int to, int shift) {
+        int[] count = new int[BUCKETS];
+        for (int i = from; i < to; i++) {
+            count[(keys[i] >>> shift) & (BUCKETS - 1)]++;
+        }
+        return count;
+    }
+
+    /**
+     * Sequential pass
+     *
+     * @param keysFrom
+     * @param valuesFrom
+     * @param keysTo
+     * @param valuesTo
+     * @param shift
+     */
+    private static void pass(int[] keysFrom, long[] valuesFrom, int[] keysTo, long[] valuesTo, int shift) {
+        int[] offsets = count(keysFrom, 0, keysFrom.length, shift);
+        int offset = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            int count = offsets[bucket];
+            offsets[bucket] = offset;
+            offset += count;
+        }
+        scatter(keysFrom, valuesFrom, keysTo, valuesTo, 0, keysFrom.length, shift, offsets);
+    }
+
+    /**
+     * Parallel pass
+     *
+     * @param keysFrom
+     * @param valuesFrom
+     * @param keysTo
+     * @param valuesTo
+     * @param shift
+     * @param chunks
+     * @param executor
+     */
+    private static void pass(final int[] keysFrom,
+                             final long[] valuesFrom,
+                             final int[] keysTo,
+                             final long[] valuesTo,
+                             final int shift,
+                             int chunks,
+                             ExecutorService executor) {
+
+        // Chunks
+        final int size = keysFrom.length;
+        final int chunkSize = (size + chunks - 1) / chunks;
+
+        // Count
+        List<Future<int[]>> counts = new ArrayList<Future<int[]>>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int from = Math.min(size, chunk * chunkSize);
+            final int to = Math.min(size, from + chunkSize);
+            counts.add(executor.submit(new Callable<int[]>() {
+                @Override
+                public int[] call() throws Exception {
+                    return count(keysFrom, from, to, shift);
+                }
+            }));
+        }
+        final int[][] offsets = new int[chunks][];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            offsets[chunk] = get(counts.get(chunk));
+        }
+
+        // Offsets: buckets in order, chunks in order within each bucket
+        int offset = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int count = offsets[chunk][bucket];
+                offsets[chunk][bucket] = offset;
+                offset += count;
+            }
+        }
+
+        // Scatter
+        List<Future<int[]>> scatters = new ArrayList<Future<int[]>>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int from = Math.min(size, chunk * chunkSize);
+            final int to = Math.min(size, from + chunkSize);
+            final int[] chunkOffsets = offsets[chunk];
+            scatters.add(executor.submit(new Callable<int[]>() {
+                @Override
+                public int[] call() throws Exception {
+                    scatter(keysFrom, valuesFrom, keysTo, valuesTo, from, to, shift, chunkOffsets);
+                    return chunkOffsets;
+                }
+            }));
+        }
+        for (Future<int[]> future : scatters) {
+            get(future);
+        }
+    }
+
+    /**
+     * Returns the result of the given future
+     *
+     * @param future
+     * @return
+     */
+    private static int[] get(Future<int[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Moves the elements of the given range to their buckets
+     *
+     * @param keysFrom
+     * @param valuesFrom
+     * @param keysTo
+     * @param valuesTo
+     * @param from
+     * @param to
+     * @param shift
+     * @param offsets
+     */
+    private static void scatter(int[] keysFrom, long[] valuesFrom, int[] keysTo, long[] valuesTo,
+                                int from, int to, int shift, int[] offsets) {
+        for (int i = from; i < to; i++) {
+            int key = keysFrom[i];
+            int index = offsets[(key >>> shift) & (BUCKETS - 1)]++;
+            keysTo[index] = key;
+            valuesTo[index] = valuesFrom[i];
+        }
+    }
+
+    /**
+     * No instances
+     */
+    private FLASHRadixSort() {
+        // Empty by design
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for speculative checks of midpoints in the binary phase of FLASH. A speculative check is
+ * either used, cancelled before it has started, or wasted.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHSpeculation {
+
+    /** Number of speculative checks submitted */
+    private static final AtomicLong SUBMITTED = new AtomicLong();
+
+    /** Number of results used */
+    private static final AtomicLong USED      = new AtomicLong();
+
+    /** Number of checks cancelled before they started */
+    private static final AtomicLong CANCELLED = new AtomicLong();
+
+    /** Number of results discarded */
+    private static final AtomicLong WASTED    = new AtomicLong();
+
+    /** Time spent in speculative checks in nanoseconds */
+    private static final AtomicLong TIME      = new AtomicLong();
+
+    /** Time spent in discarded checks in nanoseconds */
+    private static final AtomicLong WASTE     = new AtomicLong();
+
+    /**
+     * Returns the number of checks cancelled before they started
+     *
+     * @return
+     */
+    public static long getNumCancelled() {
+        return CANCELLED.get();
+    }
+
+    /**
+     * Returns the number of speculative checks submitted
+     *
+     * @return
+     */
+    public static long getNumSubmitted() {
+        return SUBMITTED.get();
+    }
+
+    /**
+     * Returns the number of results used
+     *
+     * @return
+     */
+    public static long getNumUsed() {
+        return USED.get();
+    }
+
+    /**
+     * Returns the number of results discarded
+     *
+     * @return
+     */
+    public static long getNumWasted() {
+        return WASTED.get();
+    }
+
+    /**
+     * Returns the time spent in speculative checks in nanoseconds
+     *
+     * @return
+     */
+    public static long getTime() {
+        return TIME.get();
+    }
+
+    /**
+     * Returns the time spent in discarded checks in nanoseconds
+     *
+     * @return
+     */
+    public static long getWastedTime() {
+        return WASTE.get();
+    }
+
+    /**
+     * Resets all counters
+     */
+    public static void reset() {
+        SUBMITTED.set(0);
+        USED.set(0);
+        CANCELLED.set(0);
+        WASTED.set(0);
+        TIME.set(0);
+        WASTE.set(0);
+    }
+
+    /**
+     * Returns a string representation of the counters
+     *
+     * @return
+     */
+    public static String toStatistics() {
+        return "Speculative checks - submitted: " + getNumSubmitted() + ", used: " + getNumUsed() + ", cancelled: " +
+               getNumCancelled() + ", wasted: " + getNumWasted() + ", time: " + ((double) getTime() / 1000000d) +
+               "[ms], wasted time: " + ((double) getWastedTime() / 1000000d) + "[ms]";
+    }
+
+    /**
+     * Counts a cancelled check
+     */
+    static void addCancelled() {
+        CANCELLED.incrementAndGet();
+    }
+
+    /**
+     * Counts a submitted check
+     */
+    static void addSubmitted() {
+        SUBMITTED.incrementAndGet();
+    }
+
+    /**
+     * Counts a check
+     *
+     * @param time
+     */
+    static void addTime(long time) {
+        TIME.addAndGet(time);
+    }
+
+    /**
+     * Counts a used result
+     */
+    static void addUsed() {
+        USED.incrementAndGet();
+    }
+
+    /**
+     * Counts a discarded result
+     *
+     * @param time
+     */
+    static void addWasted(long time) {
+        WASTED.incrementAndGet();
+        WASTE.addAndGet(time);
+    }
+
+    /**
+     * No instances
+     */
+    private FLASHSpeculation() {
+        // Empty by design
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+
+/**
+ * This class implements the strategy of FLASH, which orders transformations by their level,
+ * the average of their relative generalization levels and the number of distinct values they
+ * produce. It replaces the class of the library, which only compares int identifiers, with the
+ * same constructor, so that transformations beyond the int range can be compared with
+ * compare(long, long). Metrics are cached in a dense array for solution spaces with at most
+ * MAX_DENSE_SIZE transformations and in a hash map otherwise.
+ *
+ * @author Fabian Prasser
+ * @author Florian Kohlmayer
+ */
+public class FLASHStrategy implements Comparator<Integer>, Serializable {
+
+    /** SVUID */
+    private static final long                     serialVersionUID = 8477746828024447735L;
+
+    /** Maximal size of solution spaces for which metrics are cached in a dense array */
+    public static long                            MAX_DENSE_SIZE   = 1L << 22;
+
+    /** Metrics per transformation, if dense */
+    private final double[][]                      cache;
+
+    /** Metrics per transformation, if sparse */
+    private final LongObjectOpenHashMap<double[]> sparse;
+
+    /** The number of distinct values per attribute and level */
+    private final int[][]                         distinct;
+
+    /** The maximal generalization levels */
+    private final int[]                           maxLevels;
+
+    /** The solution space */
+    private final SolutionSpace                   solutionSpace;
+
+    /**
+     * Creates a new instance
+     *
+     * @param solutionSpace
+     * @param hierarchies
+     */
+    public FLASHStrategy(SolutionSpace solutionSpace, GeneralizationHierarchy[] hierarchies) {
+        this.solutionSpace = solutionSpace;
+        this.maxLevels = solutionSpace.getTop().getGeneralization();
+        this.distinct = new int[hierarchies.length][];
+        for (int i = 0; i < hierarchies.length; i++) {
+            this.distinct[i] = hierarchies[i].getDistinctValues();
+        }
+        if (solutionSpace.getSize() > MAX_DENSE_SIZE) {
+            this.cache = null;
+            this.sparse = new LongObjectOpenHashMap<double[]>();
+        } else {
+            this.cache = new double[(int) solutionSpace.getSize()][];
+            this.sparse = null;
+        }
+    }
+
+    @Override
+    public int compare(Integer id1, Integer id2) {
+        return compare(id1.longValue(), id2.longValue());
+    }
+
+    /**
+     * Compares two transformations
+     *
+     * @param id1
+     * @param id2
+     * @return
+     */
+    public int compare(long id1, long id2) {
+
+        double[] m1 = getMetrics(id1);
+        double[] m2 = getMetrics(id2);
+
+        // Level
+        int result = Double.compare(m1[0], m2[0]);
+        if (result != 0) {
+            return result;
+        }
+
+        // Average relative generalization
+        result = Double.compare(m1[1], m2[1]);
+        if (result != 0) {
+            return result;
+        }
+
+        // Distinct values
+        return Double.compare(m1[2], m2[2]);
+    }
+
+    /**
+     * Returns the metrics of the given transformation
+     *
+     * @param id
+     * @return
+     */
+    private double[] getMetrics(long id) {
+
+        // Cached
+        double[] result = cache != null ? cache[(int) id] : (sparse.containsKey(id) ? sparse.lget() : null);
+        if (result != null) {
+            return result;
+        }
+
+        // Compute
+        int[] generalization = solutionSpace.getTransformation(id).getGeneralization();
+        double level = 0d;
+        double precision = 0d;
+        double values = 0d;
+        for (int i = 0; i < generalization.length; i++) {
+            level += generalization[i];
+            precision += maxLevels[i] == 0 ? 0d : (double) generalization[i] / (double) maxLevels[i];
+            values += distinct[i][generalization[i]];
+        }
+        result = new double[] { level, precision / generalization.length, values };
+
+        // Store
+        if (cache != null) {
+            cache[(int) id] = result;
+        } else {
+            sparse.put(id, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+
+import cern.colt.GenericSorting;
+import cern.colt.Swapper;
+import cern.colt.function.IntComparator;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongLongOpenHashMap;
+
+import de.linearbits.jhpl.JHPLIterator.LongIterator;
+
+/**
+ * Exports the order defined by a FLASHStrategy as primitive keys. A key orders transformations
+ * by level first and by the strategy within a level, which is the order in which FLASH processes
+ * transformations. Keys of a level are computed by sorting the level with the strategy once, when
+ * a key of the level is requested for the first time. Keys are stored sparsely, for ranked levels only.
+ * Afterwards, subsets of the level can be sorted with a radix sort on the ranks, without invoking the
+ * strategy.<br>
+ * <br>
+ * At most MAX_RANKED_SIZE keys are stored. If ranking a level exceeds this number, the levels which
+ * have been ranked first are evicted and ranked again when they are requested. Ranking is deterministic,
+ * so that keys remain valid after they have been evicted.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHStrategyKeys {
+
+    /** Maximal number of keys stored */
+    public static int                 MAX_RANKED_SIZE = 1 << 22;
+
+    /** The strategy */
+    private final FLASHStrategy       strategy;
+
+    /** The solution space */
+    private final SolutionSpace       solutionSpace;
+
+    /** Keys of the transformations on ranked levels */
+    private final LongLongOpenHashMap keys            = new LongLongOpenHashMap();
+
+    /** Transformations of the ranked levels, in the order in which they have been ranked */
+    private final Deque<long[]>       ranked          = new ArrayDeque<long[]>();
+
+    /**
+     * Creates a new instance
+     *
+     * @param solutionSpace
+     * @param strategy
+     */
+    public FLASHStrategyKeys(SolutionSpace solutionSpace, FLASHStrategy strategy) {
+        this.solutionSpace = solutionSpace;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Compares two transformations by key and identifier
+     *
+     * @param id1
+     * @param id2
+     * @return
+     */
+    public int compare(long id1, long id2) {
+        long key1 = getKey(id1);
+        long key2 = getKey(id2);
+        if (key1 != key2) {
+            return key1 < key2 ? -1 : 1;
+        }
+        return id1 < id2 ? -1 : (id1 == id2 ? 0 : 1);
+    }
+
+    /**
+     * Returns the key of the given transformation
+     *
+     * @param id
+     * @return
+     */
+    public long getKey(long id) {
+        if (!keys.containsKey(id)) {
+            rank(solutionSpace.getTransformation(id).getLevel());
+        }
+        return keys.get(id);
+    }
+
+    /**
+     * Sorts the given transformations, which must be on the same level, by their keys
+     *
+     * @param ids
+     * @param threads
+     */
+    public void sort(long[] ids, int threads) {
+
+        // The lower half of a key is the rank within the level
+        int[] ranks = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ranks[i] = (int) getKey(ids[i]);
+        }
+        FLASHRadixSort.sort(ranks, ids, threads);
+    }
+
+    /**
+     * Ranks all transformations on the given level
+     *
+     * @param level
+     */
+    private void rank(int level) {
+
+        // Collect
+        LongArrayList list = new LongArrayList();
+        for (LongIterator iter = solutionSpace.unsafeGetLevel(level); iter.hasNext();) {
+            list.add(iter.next());
+        }
+        final long[] array = list.toArray();
+
+        // Sort with the strategy
+        GenericSorting.mergeSort(0, array.length, new IntComparator(){
+            @Override
+            public int compare(int arg0, int arg1) {
+                return strategy.compare(array[arg0], array[arg1]);
+            }
+        }, new Swapper(){
+            @Override
+            public void swap(int arg0, int arg1) {
+                long temp = array[arg0];
+                array[arg0] = array[arg1];
+                array[arg1] = temp;
+            }
+        });
+
+        // Evict
+        while (!ranked.isEmpty() && keys.size() + array.length > MAX_RANKED_SIZE) {
+            for (long id : ranked.poll()) {
+                keys.remove(id);
+            }
+        }
+
+        // Store
+        for (int rank = 0; rank < array.length; rank++) {
+            keys.put(array[rank], ((long) level << 32) | rank);
+        }
+        ranked.add(array);
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+
+import cern.colt.list.LongArrayList;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+
+import de.linearbits.jhpl.JHPLIterator.LongIterator;
+
+/**
+ * The successors of transformations, sorted according to the strategy. Successors are computed
+ * level by level, when the successors of a transformation on a level are requested for the first
+ * time. Per level, the transformations are stored in ascending order of their identifiers and their
+ * successors in compressed sparse row format: the successors of the transformation at position 'index'
+ * are stored in targets[offsets[index]] to targets[offsets[index + 1] - 1].<br>
+ * <br>
+ * Levels are only stored in this format for solution spaces with at most MAX_PRECOMPUTED_SIZE transformations.
+ * For larger solution spaces, the sorted successors of a transformation are computed when they are requested
+ * for the first time and cached sparsely, so that memory requirements are proportional to the number of
+ * transformations visited.
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHSuccessors {
+
+    /** Maximal size of solution spaces for which levels are stored in compressed sparse row format */
+    public static long                          MAX_PRECOMPUTED_SIZE = 1L << 22;
+
+    /** Minimal number of transformations per chunk when sorting in parallel */
+    private static final int                    MIN_CHUNK_SIZE       = 1 << 14;
+
+    /** Transformations per level, if precomputed */
+    private final int[][]                       identifiers;
+
+    /** Offsets per level, if precomputed */
+    private final int[][]                       offsets;
+
+    /** Targets per level, if precomputed */
+    private final int[][]                       targets;
+
+    /** Cached successors, if not precomputed */
+    private final LongObjectOpenHashMap<long[]> cache;
+
+    /** The solution space */
+    private final SolutionSpace                 solutionSpace;
+
+    /** The keys */
+    private final FLASHStrategyKeys             keys;
+
+    /** The number of threads used for sorting */
+    private final int                           threads;
+
+    /** The transformation looked up last */
+    private long                                lastIdentifier       = -1;
+
+    /** The level of the transformation looked up last */
+    private int                                 lastLevel;
+
+    /** The position of the transformation looked up last */
+    private int                                 lastIndex;
+
+    /**
+     * Creates a new instance
+     *
+     * @param solutionSpace
+     * @param keys
+     * @param threads
+     */
+    public FLASHSuccessors(SolutionSpace solutionSpace, FLASHStrategyKeys keys, int threads) {
+
+        this.solutionSpace = solutionSpace;
+        this.keys = keys;
+        this.threads = threads;
+
+        // Compute on demand
+        if (solutionSpace.getSize() > MAX_PRECOMPUTED_SIZE) {
+            this.identifiers = null;
+            this.offsets = null;
+            this.targets = null;
+            this.cache = new LongObjectOpenHashMap<long[]>();
+        } else {
+            int levels = solutionSpace.getTop().getLevel() + 1;
+            this.identifiers = new int[levels][];
+            this.offsets = new int[levels][];
+            this.targets = new int[levels][];
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns the successor of the given transformation with the given index
+     *
+     * @param id
+     * @param index
+     * @return
+     */
+    public long get(long id, int index) {
+        if (cache == null) {
+            locate(id);
+            return targets[lastLevel][offsets[lastLevel][lastIndex] + index];
+        }
+        return getCached(id)[index];
+    }
+
+    /**
+     * Returns the number of successors of the given transformation
+     *
+     * @param id
+     * @return
+     */
+    public int size(long id) {
+        if (cache == null) {
+            locate(id);
+            return offsets[lastLevel][lastIndex + 1] - offsets[lastLevel][lastIndex];
+        }
+        return getCached(id).length;
+    }
+
+    /**
+     * Returns the sorted successors of the given transformation from the cache
+     *
+     * @param id
+     * @return
+     */
+    private long[] getCached(long id) {
+
+        // Cached
+        if (cache.containsKey(id)) {
+            return cache.lget();
+        }
+
+        // Collect
+        LongArrayList successors = solutionSpace.getTransformation(id).getSuccessors();
+        long[] result = new long[successors.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = successors.getQuick(i);
+        }
+
+        // Sort
+        for (int i = 1; i < result.length; i++) {
+            long value = result[i];
+            int j = i - 1;
+            while (j >= 0 && keys.compare(result[j], value) > 0) {
+                result[j + 1] = result[j];
+                j--;
+            }
+            result[j + 1] = value;
+        }
+
+        // Store
+        cache.put(id, result);
+        return result;
+    }
+
+    /**
+     * Computes the successors of all transformations on the given level. The successors are collected
+     * sequentially, because the solution space must not be accessed concurrently, and sorted in parallel
+     * afterwards.
+     *
+     * @param level
+     */
+    private void compute(int level) {
+
+        // Collect transformations
+        IntArrayList list = new IntArrayList();
+        for (LongIterator iter = solutionSpace.unsafeGetLevel(level); iter.hasNext();) {
+            list.add((int) iter.next());
+        }
+        int[] ids = list.toArray();
+        Arrays.sort(ids);
+
+        // Collect successors and compute their keys
+        int size = ids.length;
+        int[] offsets = new int[size + 1];
+        list = new IntArrayList(size);
+        for (int index = 0; index < size; index++) {
+            offsets[index] = list.size();
+            LongArrayList successors = solutionSpace.getTransformation(ids[index]).getSuccessors();
+            for (int i = 0; i < successors.size(); i++) {
+                int successor = (int) successors.getQuick(i);
+                keys.getKey(successor);
+                list.add(successor);
+            }
+        }
+        offsets[size] = list.size();
+        int[] targets = list.toArray();
+
+        // Sort
+        int chunks = Math.max(1, Math.min(threads, size / MIN_CHUNK_SIZE));
+        if (chunks == 1) {
+            sort(offsets, targets, 0, size);
+        } else {
+            sortParallel(offsets, targets, size, chunks);
+        }
+
+        // Store
+        this.identifiers[level] = ids;
+        this.offsets[level] = offsets;
+        this.targets[level] = targets;
+    }
+
+    /**
+     * Locates the given transformation and computes its level, if required
+     *
+     * @param id
+     */
+    private void locate(long id) {
+
+        // Located last
+        if (id == lastIdentifier) {
+            return;
+        }
+
+        // Locate
+        int level = solutionSpace.getTransformation(id).getLevel();
+        if (identifiers[level] == null) {
+            compute(level);
+        }
+        lastIndex = Arrays.binarySearch(identifiers[level], (int) id);
+        lastLevel = level;
+        lastIdentifier = id;
+    }
+
+    /**
+     * Sorts the successors of the given range of transformations. Lists are short, so we use insertion sort.
+     *
+     * @param offsets
+     * @param targets
+     * @param from
+     * @param to
+     */
+    private void sort(int[] offsets, int[] targets, int from, int to) {
+        for (int index = from; index < to; index++) {
+            int begin = offsets[index];
+            int end = offsets[index + 1];
+            for (int i = begin + 1; i < end; i++) {
+                int value = targets[i];
+                int j = i - 1;
+                while (j >= begin && keys.compare(targets[j], value) > 0) {
+                    targets[j + 1] = targets[j];
+                    j--;
+                }
+                targets[j + 1] = value;
+            }
+        }
+    }
+
+    /**
+     * Sorts the successors in parallel. All keys of the next level are known at this point, so that
+     * the keys are only read.
+     *
+     * @param offsets
+     * @param targets
+     * @param size
+     * @param chunks
+     */
+    private void sortParallel(final int[] offsets, final int[] targets, int size, int chunks) {
+        ExecutorService executor = Executors.newFixedThreadPool(chunks);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            int chunkSize = (size + chunks - 1) / chunks;
+            for (int from = 0; from < size; from += chunkSize) {
+                final int start = from;
+                final int stop = Math.min(size, from + chunkSize);
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        sort(offsets, targets, start, stop);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.util.Statistics;
+
+/**
+ * Measures workloads with JMH. Each workload is measured in FORKS separate JVMs, each of which performs
+ * WARMUP_ITERATIONS that are discarded and MEASUREMENT_ITERATIONS that are reported, in JMH's average time
+ * mode. The result consists of the mean time per operation, the standard deviation and the half-width of
+ * the 99.9% confidence interval over all measured iterations, which JMH reports as error.<br>
+ * <br>
+ * In the forks, workloads are created by name with the factory given to measure(), which must have a public
+ * constructor without arguments. Values reported by a workload after its last iteration are passed back
+ * through a temporary file.
+ *
+ * @author Fabian Prasser
+ * @author Florian Kohlmayer
+ */
+public abstract class BenchmarkHarness {
+
+    /**
+     * The state of a fork, which is instantiated by JMH
+     *
+     * @author Fabian Prasser
+     */
+    @State(Scope.Benchmark)
+    public static class Fork {
+
+        /** Class of the factory */
+        @Param({ "" })
+        public String    factory;
+
+        /** Name of the workload */
+        @Param({ "" })
+        public String    workload;
+
+        /** File to which values are written */
+        @Param({ "" })
+        public String    values;
+
+        /** The workload */
+        private Workload instance;
+
+        /**
+         * Performs one operation
+         *
+         * @throws IOException
+         */
+        @Benchmark
+        @BenchmarkMode(Mode.AverageTime)
+        @OutputTimeUnit(TimeUnit.MILLISECONDS)
+        public void run() throws IOException {
+            instance.run();
+        }
+
+        /**
+         * Creates and prepares the workload
+         *
+         * @throws Exception
+         */
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            instance = ((WorkloadFactory) Class.forName(factory).newInstance()).create(workload);
+            instance.setup();
+        }
+
+        /**
+         * Writes the values of the workload
+         *
+         * @throws IOException
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Properties properties = new Properties();
+            for (Entry<String, Double> entry : instance.getValues().entrySet()) {
+                properties.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+            }
+            OutputStream out = new FileOutputStream(values);
+            try {
+                properties.store(out, workload);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * The result of measuring a workload
+     *
+     * @author Fabian Prasser
+     */
+    public static class Result {
+
+        /** Statistics of the measured iterations in milliseconds per operation */
+        private final Statistics          statistics;
+
+        /** Values reported by the workload */
+        private final Map<String, Double> values;
+
+        /**
+         * Creates a new instance
+         *
+         * @param statistics
+         * @param values
+         */
+        private Result(Statistics statistics, Map<String, Double> values) {
+            this.statistics = statistics;
+            this.values = values;
+        }
+
+        /**
+         * Returns the half-width of the 99.9% confidence interval of the mean
+         *
+         * @return
+         */
+        public double getError() {
+            return statistics.getMeanErrorAt(0.999d);
+        }
+
+        /**
+         * Returns the mean time per operation in milliseconds
+         *
+         * @return
+         */
+        public double getMean() {
+            return statistics.getMean();
+        }
+
+        /**
+         * Returns the sample standard deviation in milliseconds
+         *
+         * @return
+         */
+        public double getStandardDeviation() {
+            return statistics.getStandardDeviation();
+        }
+
+        /**
+         * Returns the given value reported by the workload, NaN if it has not been reported
+         *
+         * @param name
+         * @return
+         */
+        public double getValue(String name) {
+            Double value = values.get(name);
+            return value == null ? Double.NaN : value;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f +- %.3f [ms/op] (stdev: %.3f, n: %d)", getMean(), getError(), getStandardDeviation(), statistics.getN());
+        }
+    }
+
+    /**
+     * A workload
+     *
+     * @author Fabian Prasser
+     */
+    public static interface Workload {
+
+        /**
+         * Prepares the workload, called once per fork
+         *
+         * @throws IOException
+         */
+        public void setup() throws IOException;
+
+        /**
+         * Performs one operation. Results must be stored, so that the operation is not eliminated.
+         *
+         * @throws IOException
+         */
+        public void run() throws IOException;
+
+        /**
+         * Returns additional values which are reported after the last iteration, e.g. the number of checks
+         *
+         * @return
+         */
+        public Map<String, Double> getValues();
+    }
+
+    /**
+     * Creates workloads by name
+     *
+     * @author Fabian Prasser
+     */
+    public static interface WorkloadFactory {
+
+        /**
+         * Creates the workload with the given name
+         *
+         * @param name
+         * @return
+         */
+        public Workload create(String name);
+    }
+
+    /** Number of forks */
+    public static int FORKS                  = 3;
+
+    /** Number of warmup iterations per fork */
+    public static int WARMUP_ITERATIONS      = 3;
+
+    /** Number of measured iterations per fork */
+    public static int MEASUREMENT_ITERATIONS = 5;
+
+    /** Minimal duration of an iteration in milliseconds. An iteration performs at least one operation. */
+    public static int ITERATION_TIME         = 1000;
+
+    /**
+     * Measures the given workload in FORKS separate JVMs
+     *
+     * @param factory The class which creates the workload in the forks
+     * @param workload The name of the workload
+     * @return
+     * @throws IOException
+     */
+    public static Result measure(Class<? extends WorkloadFactory> factory, String workload) throws IOException {
+
+        // Prepare
+        long heap = Runtime.getRuntime().maxMemory() / (1024L * 1024L);
+        File values = File.createTempFile("workload", ".properties");
+        Options options = new OptionsBuilder().include(Pattern.quote(Fork.class.getCanonicalName()) + "\\.run$")
+                                              .param("factory", factory.getName())
+                                              .param("workload", workload)
+                                              .param("values", values.getAbsolutePath())
+                                              .forks(FORKS)
+                                              .warmupIterations(WARMUP_ITERATIONS)
+                                              .warmupTime(TimeValue.milliseconds(ITERATION_TIME))
+                                              .measurementIterations(MEASUREMENT_ITERATIONS)
+                                              .measurementTime(TimeValue.milliseconds(ITERATION_TIME))
+                                              .jvmArgsAppend("-Xmx" + heap + "m")
+                                              .shouldFailOnError(true)
+                                              .build();
+
+        // Run
+        try {
+            RunResult result = new Runner(options).runSingle();
+            return new Result(result.getPrimaryResult().getStatistics(), getValues(values));
+        } catch (RunnerException e) {
+            throw new IOException("Measuring " + workload + " failed", e);
+        } finally {
+            values.delete();
+        }
+    }
+
+    /**
+     * Reads the values written by the last fork
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    private static Map<String, Double> getValues(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        Map<String, Double> values = new LinkedHashMap<String, Double>();
+        for (String name : properties.stringPropertyNames()) {
+            values.put(name, Double.valueOf(properties.getProperty(name)));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.deidentifier.arx.benchmark.BenchmarkSpec.Run;
+
+import de.linearbits.subframe.io.CSVFile;
+import de.linearbits.subframe.io.CSVLine;
+
+/**
+ * The output of an experiment. Lines are identified by the keys of the specification, the columns
+ * of the measures by the values of its pivot columns. Lines are written in the order in which they
+ * were first added, cells of runs which have not been performed yet are left empty.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkOutput {
+
+    /** The specification */
+    private final BenchmarkSpec             spec;
+
+    /** Names of the measures */
+    private final List<String>              measures;
+
+    /** Values of the pivot columns, in the order of the runs */
+    private final List<List<String>>        pivots;
+
+    /** Header */
+    private final String[][]                header;
+
+    /** Lines by keys */
+    private final Map<List<String>, String[]> lines;
+
+    /**
+     * Creates a new instance
+     *
+     * @param spec
+     */
+    public BenchmarkOutput(BenchmarkSpec spec) {
+        this.spec = spec;
+        this.measures = new ArrayList<String>();
+        for (String measure : spec.getMeasures()) {
+            if (measure.equals("risks")) {
+                measures.add("SU");
+                for (String population : spec.getPopulations().keySet()) {
+                    measures.add("PU (" + population + ")");
+                }
+            } else {
+                measures.add(measure);
+            }
+        }
+        this.pivots = new ArrayList<List<String>>();
+        for (Run run : spec.getRuns()) {
+            List<String> pivot = Arrays.asList(run.getValues(spec.getPivot()));
+            if (!pivots.contains(pivot)) {
+                pivots.add(pivot);
+            }
+        }
+        String[] keys = spec.getKeys();
+        this.header = new String[2][keys.length + measures.size() * pivots.size()];
+        for (int i = 0; i < keys.length; i++) {
+            header[0][i] = "";
+            header[1][i] = spec.getLabel(keys[i], keys[i]);
+        }
+        for (int i = 0; i < measures.size(); i++) {
+            for (int j = 0; j < pivots.size(); j++) {
+                int column = getColumn(i, j);
+                header[0][column] = getName(measures.get(i), pivots.get(j));
+                header[1][column] = "Value";
+            }
+        }
+        this.lines = new LinkedHashMap<List<String>, String[]>();
+    }
+
+    /**
+     * Adds the values of a run with the given keys and values of the pivot columns
+     *
+     * @param keys
+     * @param pivot
+     * @param values
+     */
+    public void add(String[] keys, String[] pivot, Map<String, Double> values) {
+        String[] line = lines.get(Arrays.asList(keys));
+        if (line == null) {
+            line = new String[header[0].length];
+            Arrays.fill(line, "");
+            System.arraycopy(keys, 0, line, 0, keys.length);
+            lines.put(Arrays.asList(keys), line);
+        }
+        int index = pivots.indexOf(Arrays.asList(pivot));
+        for (int i = 0; i < measures.size(); i++) {
+            String measure = measures.get(i);
+            line[getColumn(i, index)] = String.valueOf(values.containsKey(measure) ? values.get(measure) : Double.NaN);
+        }
+    }
+
+    /**
+     * Returns the two lines of the header
+     *
+     * @return
+     */
+    public String[][] getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the lines, in the order in which they are written
+     *
+     * @return
+     */
+    public List<String[]> getLines() {
+        return new ArrayList<String[]>(lines.values());
+    }
+
+    /**
+     * Returns whether the run with the given keys and values of the pivot columns has been performed
+     *
+     * @param keys
+     * @param pivot
+     * @return
+     */
+    public boolean isDone(String[] keys, String[] pivot) {
+        String[] line = lines.get(Arrays.asList(keys));
+        if (line == null) {
+            return false;
+        }
+        int index = pivots.indexOf(Arrays.asList(pivot));
+        for (int i = 0; i < measures.size(); i++) {
+            if (line[getColumn(i, index)].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the output of previous runs, if it exists
+     *
+     * @throws IOException
+     */
+    public void read() throws IOException {
+        if (!spec.getOutput().exists()) {
+            return;
+        }
+
+        // Check header
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(spec.getOutput()), Charset.defaultCharset()));
+        try {
+            for (String[] line : header) {
+                if (!getLine(line).equals(reader.readLine())) {
+                    throw new IOException("Output " + spec.getOutput() + " does not match the specification " + spec.getFile());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Read lines. Trailing empty cells are lost when reading
+        Iterator<CSVLine> iter = new CSVFile(spec.getOutput()).iterator();
+        while (iter.hasNext()) {
+            String[] data = iter.next().getData();
+            String[] line = new String[header[0].length];
+            Arrays.fill(line, "");
+            System.arraycopy(data, 0, line, 0, Math.min(data.length, line.length));
+            lines.put(Arrays.asList(line).subList(0, spec.getKeys().length), line);
+        }
+    }
+
+    /**
+     * Writes all lines to the output
+     *
+     * @throws IOException
+     */
+    public void write() throws IOException {
+        CSVFile file = new CSVFile(header[0], header[1]);
+        for (String[] line : lines.values()) {
+            file.addLine(line);
+        }
+        if (spec.getOutput().getParentFile() != null) {
+            spec.getOutput().getParentFile().mkdirs();
+        }
+        file.write(spec.getOutput());
+    }
+
+    /**
+     * Returns the index of the column of the given measure and values of the pivot columns
+     *
+     * @param measure
+     * @param pivot
+     * @return
+     */
+    private int getColumn(int measure, int pivot) {
+        return spec.getKeys().length + measure * pivots.size() + pivot;
+    }
+
+    /**
+     * Returns a line of the output
+     *
+     * @param values
+     * @return
+     */
+    private String getLine(String[] values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            builder.append(i == 0 ? "" : ";").append(values[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the name of the given measure for the given values of the pivot columns
+     *
+     * @param measure
+     * @param pivot
+     * @return
+     */
+    private String getName(String measure, List<String> pivot) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(spec.getLabel(measure, measure));
+        for (String value : pivot) {
+            builder.append("-").append(spec.getLabel(value, "(" + value + ")"));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXPopulationModel;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.algorithm.BestFirstAlgorithmImpl;
+import org.deidentifier.arx.algorithm.FLASHAlgorithmImpl;
+import org.deidentifier.arx.algorithm.FLASHAlgorithmImpl.AlgorithmFactory;
+import org.deidentifier.arx.algorithm.FLASHAnytimeResult;
+import org.deidentifier.arx.algorithm.FLASHCheckpoint;
+import org.deidentifier.arx.algorithm.FLASHHistory;
+import org.deidentifier.arx.algorithm.FLASHLowerBounds;
+import org.deidentifier.arx.algorithm.FLASHProgress;
+import org.deidentifier.arx.algorithm.FLASHProgressTracker;
+import org.deidentifier.arx.algorithm.FLASHSpeculation;
+import org.deidentifier.arx.benchmark.BenchmarkSpec.Run;
+import org.deidentifier.arx.criteria.CriterionStatistics;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.criteria.PopulationUniqueness;
+import org.deidentifier.arx.criteria.RiskBasedCriterion;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.metric.Metric.AggregateFunction;
+import org.deidentifier.arx.risk.ModelPitman;
+import org.deidentifier.arx.risk.RiskEstimateBuilder;
+import org.deidentifier.arx.risk.RiskModelPopulationUniqueness.PopulationUniquenessModel;
+
+/**
+ * Runs the experiment described by a specification file, see BenchmarkSpec. Results are written
+ * after each run, see BenchmarkOutput. Runs which are already contained in the output are skipped, so that an experiment
+ * which has been interrupted can simply be started again. Additionally, runs before a given index
+ * of the matrix can be skipped.<br>
+ * <br>
+ * Usage: BenchmarkRunner [specification] [start index]<br>
+ * <br>
+ * The following toggles are supported: polygamma, binary-search, suppression-index, lower-bound,
+ * lower-bound-cache, speculative-checks and bit-sets switch the respective optimizations.
+ * event-log and checkpoint write event logs and checkpoints to files next to the output.
+ *
+ * @author Fabian Prasser
+ * @author Florian Kohlmayer
+ */
+public abstract class BenchmarkRunner {
+
+    /** Supported toggles */
+    private static final List<String> TOGGLES  = Arrays.asList("polygamma", "binary-search", "suppression-index",
+                                                               "lower-bound", "lower-bound-cache", "speculative-checks",
+                                                               "bit-sets", "event-log", "checkpoint");
+
+    /**
+     * Main
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Parse commandline
+        if (args == null || args.length == 0) {
+            System.out.println("Usage: BenchmarkRunner [specification] [start index]");
+            return;
+        }
+        BenchmarkSpec spec = BenchmarkSpec.load(new File(args[0]));
+        int start = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+
+        // Prepare
+        List<Run> runs = getRuns(spec);
+
+        // Read previous results
+        BenchmarkOutput output = new BenchmarkOutput(spec);
+        output.read();
+        Map<String, int[]> sizes = getSizes(spec, runs);
+        int done = 0;
+        for (Run run : runs) {
+            if (output.isDone(getKeys(spec, run, sizes), run.getValues(spec.getPivot()))) {
+                done++;
+            }
+        }
+
+        System.out.println("Specification: " + spec.getFile());
+        System.out.println("Runs: " + runs.size() + ", completed: " + done + ", starting at index: " + start);
+        System.out.println("Repetitions: " + spec.getRepetitions());
+        System.out.println("Warmup: " + spec.isWarmup());
+
+        // Perform
+        for (Run run : runs) {
+            String[] keys = getKeys(spec, run, sizes);
+            String[] pivot = run.getValues(spec.getPivot());
+            if (run.getIndex() < start || output.isDone(keys, pivot)) {
+                continue;
+            }
+            System.out.println(" - Run " + (run.getIndex() + 1) + " of " + runs.size() + " [index: " + run.getIndex() + "]: " + run + ". Started at: " +
+                               new Timestamp(System.currentTimeMillis()).toString());
+            output.add(keys, pivot, analyze(spec, run));
+            output.write();
+        }
+    }
+
+    /**
+     * Performs a run
+     * @param spec
+     * @param run
+     * @return
+     * @throws IOException
+     */
+    private static Map<String, Double> analyze(BenchmarkSpec spec, Run run) throws IOException {
+
+        Data data = BenchmarkSetup.getData(run.getDataset(), run.getRows(), run.getColumns());
+        ARXConfiguration config = getConfiguration(spec, run);
+        Map<String, Double> values = new HashMap<String, Double>();
+
+        // Prepare. Files are restored as they were, as toggles can only rebuild them from this run
+        File eventLog = FLASHAlgorithmImpl.EVENT_LOG_FILE;
+        File checkpoint = FLASHAlgorithmImpl.CHECKPOINT_FILE;
+        int threads = FLASHAlgorithmImpl.THREADS;
+        if (run.getThreads() > 1 && FLASHAlgorithmImpl.CHECKER_FACTORY == null) {
+            throw new IllegalStateException("Runs with " + run.getThreads() + " threads require a checker factory");
+        }
+        FLASHAlgorithmImpl.THREADS = run.getThreads();
+        Map<String, Boolean> previous = new HashMap<String, Boolean>();
+        for (Map.Entry<String, Boolean> toggle : run.getToggles().entrySet()) {
+            previous.put(toggle.getKey(), setToggle(spec, run, toggle.getKey(), toggle.getValue()));
+        }
+        FLASHAlgorithmImpl.TIME_LIMIT = run.getBudget();
+        AlgorithmFactory factory = FLASHAlgorithmImpl.ALGORITHM_FACTORY;
+        FLASHAlgorithmImpl.ALGORITHM_FACTORY = getAlgorithmFactory(run);
+        long interval = FLASHProgressTracker.INTERVAL;
+        if (spec.getProgress() > 0) {
+            FLASHProgressTracker.INTERVAL = spec.getProgress();
+            FLASHAlgorithmImpl.PROGRESS_LISTENER = new FLASHProgress.Listener() {
+                @Override
+                public void progress(FLASHProgress progress) {
+                    System.out.println("      * " + progress);
+                }
+            };
+        }
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+
+        try {
+
+            // Warmup
+            if (spec.isWarmup()) {
+                System.out.println("   * Performing warmup");
+                anonymizer.anonymize(data, config);
+                data.getHandle().release();
+            }
+            CriterionStatistics.reset();
+            FLASHSpeculation.reset();
+            FLASHHistory.reset();
+            FLASHLowerBounds.reset();
+            FLASHCheckpoint.reset();
+
+            // Run. Only anonymization is timed, not the analysis of its result
+            long time = 0;
+            for (int i = 0; i < spec.getRepetitions(); i++) {
+                System.out.println(("   * Run: " + (i + 1) + " of " + spec.getRepetitions()));
+                long start = System.currentTimeMillis();
+                ARXResult result = anonymizer.anonymize(data, config);
+                time += System.currentTimeMillis() - start;
+                if (i == 0) {
+                    analyze(spec, run, data, result, values);
+                }
+                data.getHandle().release();
+            }
+            values.put("time", (double) time / (double) spec.getRepetitions());
+
+        } finally {
+            for (Map.Entry<String, Boolean> toggle : previous.entrySet()) {
+                setToggle(spec, run, toggle.getKey(), toggle.getValue());
+            }
+            FLASHAlgorithmImpl.EVENT_LOG_FILE = eventLog;
+            FLASHAlgorithmImpl.CHECKPOINT_FILE = checkpoint;
+            FLASHAlgorithmImpl.THREADS = threads;
+            FLASHAlgorithmImpl.TIME_LIMIT = Long.MAX_VALUE;
+            FLASHAlgorithmImpl.ALGORITHM_FACTORY = factory;
+            FLASHAlgorithmImpl.PROGRESS_LISTENER = null;
+            FLASHProgressTracker.INTERVAL = interval;
+        }
+
+        // Statistics
+        for (CriterionStatistics statistics : CriterionStatistics.getAll()) {
+            System.out.println("   * " + statistics);
+        }
+        System.out.println("   * " + FLASHSpeculation.toStatistics());
+        System.out.println("   * " + FLASHHistory.toStatistics());
+        System.out.println("   * " + FLASHLowerBounds.toStatistics());
+        System.out.println("   * " + FLASHCheckpoint.toStatistics());
+        return values;
+    }
+
+    /**
+     * Stores the number of checks, the utility, the gap and the residual risks of the given result
+     * @param spec
+     * @param run
+     * @param data
+     * @param result
+     * @param values
+     * @throws IOException
+     */
+    private static void analyze(BenchmarkSpec spec, Run run, Data data, ARXResult result, Map<String, Double> values) throws IOException {
+
+        // Checks
+        int checks = 0;
+        for (ARXNode[] level : result.getLattice().getLevels()) {
+            for (ARXNode node : level) {
+                if (node.isChecked()) {
+                    checks++;
+                }
+            }
+        }
+        values.put("checks", (double) checks);
+
+        // Gap
+        FLASHAnytimeResult anytime = FLASHAnytimeResult.getLast();
+        if (anytime != null) {
+            System.out.println("   * " + anytime);
+            values.put("gap", anytime.getRelativeGap());
+        }
+
+        // Utility and risks
+        if (result.getGlobalOptimum() == null) {
+            return;
+        }
+        double utility = Double.valueOf(result.getGlobalOptimum().getMaximumInformationLoss().toString());
+        switch (run.getMetric()) {
+        case ENTROPY:
+            utility = 1 - (utility / (double) data.getDefinition().getQuasiIdentifyingAttributes().size());
+            break;
+        case LOSS:
+            utility = 1 - utility;
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown metric: " + run.getMetric());
+        }
+        values.put("utility", utility);
+        if (spec.getMeasures().contains("risks")) {
+            boolean first = true;
+            for (Map.Entry<String, Double> population : spec.getPopulations().entrySet()) {
+                RiskEstimateBuilder estimator = result.getOutput().getRiskEstimator(ARXPopulationModel.create(population.getValue().longValue()),
+                                                                                    BenchmarkSetup.getSolverConfiguration());
+                if (first) {
+                    values.put("SU", estimator.getSampleBasedUniquenessRisk().getFractionOfUniqueTuples());
+                    first = false;
+                }
+                values.put("PU (" + population.getKey() + ")", estimator.getPopulationBasedUniquenessRisk().getFractionOfUniqueTuplesPitman());
+            }
+        }
+    }
+
+    /**
+     * Returns the factory of the algorithm of the given run, null for FLASH
+     * @param run
+     * @return
+     */
+    private static AlgorithmFactory getAlgorithmFactory(Run run) {
+        switch (run.getAlgorithm()) {
+        case FLASH:
+            return null;
+        case BEST_FIRST:
+            return BestFirstAlgorithmImpl.FACTORY;
+        default:
+            throw new IllegalArgumentException("Unknown algorithm: " + run.getAlgorithm());
+        }
+    }
+
+    /**
+     * Returns the keys of the given run. Rows and columns are converted into numbers of records
+     * and columns with the given sizes of the datasets.
+     * @param spec
+     * @param run
+     * @param sizes
+     * @return
+     */
+    static String[] getKeys(BenchmarkSpec spec, Run run, Map<String, int[]> sizes) {
+        String[] keys = run.getKeys(spec.getKeys());
+        for (int i = 0; i < keys.length; i++) {
+            if (spec.getKeys()[i].equals(BenchmarkSpec.ROWS)) {
+                int rows = sizes.get(run.getDataset())[0];
+                keys[i] = String.valueOf(run.getRows() < 1d ? (int) (run.getRows() * (double) rows) : rows);
+            } else if (spec.getKeys()[i].equals(BenchmarkSpec.COLUMNS)) {
+                keys[i] = String.valueOf(Math.min(run.getColumns(), sizes.get(run.getDataset())[1]));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the runs of the given specification and checks whether all toggles are supported
+     * @param spec
+     * @return
+     */
+    static List<Run> getRuns(BenchmarkSpec spec) {
+        List<Run> runs = spec.getRuns();
+        for (String toggle : runs.get(0).getToggles().keySet()) {
+            if (!TOGGLES.contains(toggle)) {
+                throw new IllegalArgumentException("Unknown toggle: " + toggle);
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Returns the numbers of records and columns of the datasets of the given runs, if they are keys
+     * @param spec
+     * @param runs
+     * @return
+     * @throws IOException
+     */
+    private static Map<String, int[]> getSizes(BenchmarkSpec spec, List<Run> runs) throws IOException {
+        Map<String, int[]> sizes = new HashMap<String, int[]>();
+        List<String> keys = Arrays.asList(spec.getKeys());
+        if (!keys.contains(BenchmarkSpec.ROWS) && !keys.contains(BenchmarkSpec.COLUMNS)) {
+            return sizes;
+        }
+        for (Run run : runs) {
+            if (!sizes.containsKey(run.getDataset())) {
+                DataHandle handle = BenchmarkSetup.getData(run.getDataset()).getHandle();
+                sizes.put(run.getDataset(), new int[] { handle.getNumRows(), handle.getNumColumns() });
+                handle.release();
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Returns the configuration of the given run
+     * @param spec
+     * @param run
+     * @return
+     */
+    private static ARXConfiguration getConfiguration(BenchmarkSpec spec, Run run) {
+
+        ARXConfiguration config = ARXConfiguration.create();
+        switch (run.getMetric()) {
+        case ENTROPY:
+            config.setMetric(Metric.createPrecomputedNormalizedEntropyMetric(1.0d, AggregateFunction.SUM));
+            break;
+        case LOSS:
+            config.setMetric(Metric.createPrecomputedLossMetric(1.0d, 0.5d, AggregateFunction.GEOMETRIC_MEAN));
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown metric: " + run.getMetric());
+        }
+        config.setMaxOutliers(run.getOutliers());
+
+        ARXPopulationModel population = ARXPopulationModel.create((long) spec.getPopulation());
+        switch (run.getModel()) {
+        case K_ANONYMITY:
+            config.addCriterion(new KAnonymity((int) run.getThreshold()));
+            break;
+        case UNIQUENESS_DANKAR:
+            config.addCriterion(new PopulationUniqueness(run.getThreshold(), PopulationUniquenessModel.DANKAR, population, BenchmarkSetup.getSolverConfiguration()));
+            break;
+        case UNIQUENESS_PITMAN:
+            config.addCriterion(new PopulationUniqueness(run.getThreshold(), PopulationUniquenessModel.PITMAN, population, BenchmarkSetup.getSolverConfiguration()));
+            break;
+        case UNIQUENESS_SNB:
+            config.addCriterion(new PopulationUniqueness(run.getThreshold(), PopulationUniquenessModel.SNB, population, BenchmarkSetup.getSolverConfiguration()));
+            break;
+        case UNIQUENESS_ZAYATZ:
+            config.addCriterion(new PopulationUniqueness(run.getThreshold(), PopulationUniquenessModel.ZAYATZ, population, BenchmarkSetup.getSolverConfiguration()));
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported model: " + run.getModel());
+        }
+        return config;
+    }
+
+    /**
+     * Sets the given toggle and returns its previous value
+     * @param spec
+     * @param run
+     * @param toggle
+     * @param value
+     * @return
+     */
+    private static boolean setToggle(BenchmarkSpec spec, Run run, String toggle, boolean value) {
+
+        // Files next to the output
+        String prefix = spec.getOutput().getPath().replaceAll("\\.csv$", "") + "-" + run.getDataset() + "-" + run.getIndex();
+        boolean previous;
+        switch (toggle) {
+        case "polygamma":
+            previous = ModelPitman.USE_POLYGAMMA;
+            ModelPitman.USE_POLYGAMMA = value;
+            return previous;
+        case "binary-search":
+            previous = RiskBasedCriterion.USE_BINARY_SEARCH;
+            RiskBasedCriterion.USE_BINARY_SEARCH = value;
+            return previous;
+        case "suppression-index":
+            previous = RiskBasedCriterion.USE_SUPPRESSION_INDEX;
+            RiskBasedCriterion.USE_SUPPRESSION_INDEX = value;
+            return previous;
+        case "lower-bound":
+            previous = FLASHAlgorithmImpl.USE_LOWER_BOUND;
+            FLASHAlgorithmImpl.USE_LOWER_BOUND = value;
+            return previous;
+        case "lower-bound-cache":
+            previous = FLASHAlgorithmImpl.USE_LOWER_BOUND_CACHE;
+            FLASHAlgorithmImpl.USE_LOWER_BOUND_CACHE = value;
+            return previous;
+        case "speculative-checks":
+            if (value && (FLASHAlgorithmImpl.THREADS < 3 || FLASHAlgorithmImpl.CHECKER_FACTORY == null)) {
+                throw new IllegalStateException("Speculative checks require at least three threads and a checker factory");
+            }
+            previous = FLASHAlgorithmImpl.SPECULATIVE_CHECKS;
+            FLASHAlgorithmImpl.SPECULATIVE_CHECKS = value;
+            return previous;
+        case "bit-sets":
+            previous = FLASHAlgorithmImpl.USE_BIT_SETS;
+            FLASHAlgorithmImpl.USE_BIT_SETS = value;
+            return previous;
+        case "event-log":
+            previous = FLASHAlgorithmImpl.EVENT_LOG_FILE != null;
+            FLASHAlgorithmImpl.EVENT_LOG_FILE = value ? new File(prefix + ".events") : null;
+            return previous;
+        case "checkpoint":
+            previous = FLASHAlgorithmImpl.CHECKPOINT_FILE != null;
+            FLASHAlgorithmImpl.CHECKPOINT_FILE = value ? new File(prefix + ".checkpoint") : null;
+            return previous;
+        default:
+            throw new IllegalArgumentException("Unknown toggle: " + toggle);
+        }
+    }
+
+}
@@ -0,0 +1,736 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.deidentifier.arx.benchmark.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.benchmark.BenchmarkSetup.BenchmarkPrivacyModel;
+import org.deidentifier.arx.benchmark.BenchmarkSetup.BenchmarkUtilityMeasure;
+
+/**
+ * The specification of an experiment, which is read from a properties file and expanded into a
+ * matrix of runs. Lists are separated by commas, the following keys are supported:<br>
+ * <br>
+ * output: the CSV file to which results are written<br>
+ * datasets: names of datasets in the folder "data"<br>
+ * models: constants of BenchmarkPrivacyModel, default: UNIQUENESS_PITMAN<br>
+ * thresholds: thresholds of the models, k for k-anonymity, default: 0.01<br>
+ * metrics: constants of BenchmarkUtilityMeasure, default: LOSS<br>
+ * outliers: suppression limits, default: 1.0<br>
+ * rows: fractions of rows, default: 1.0<br>
+ * columns: numbers of columns with hierarchies or "all", default: all<br>
+ * budgets: time limits in milliseconds or "none", default: none<br>
+ * algorithms: constants of BenchmarkAlgorithm, default: FLASH<br>
+ * threads: numbers of workers of FLASH, see FLASHAlgorithmImpl.THREADS, default: 1<br>
+ * toggle.[name]: values of the toggle with the given name, see BenchmarkRunner<br>
+ * repetitions: number of measured repetitions per run, default: 1<br>
+ * warmup: whether a warmup is performed, default: true if more than one repetition is measured<br>
+ * measures: any of time, checks, utility, gap and risks, default: time, checks<br>
+ * population: size of the population for population uniqueness, default: population of the USA<br>
+ * populations: name and size of populations for which risks are measured, default: USA<br>
+ * progress: interval in which progress is reported in milliseconds, default: 0 for no reports<br>
+ * keys: columns identifying runs in the output, default: Dataset and all dimensions with more than one value<br>
+ * pivot: columns whose values are spread across the measures instead of identifying lines, default: none<br>
+ * labels.[name]: label of a key, measure or value of a pivot column in the output<br>
+ * <br>
+ * Runs which differ in their pivot columns only are written to the same line. The measures are then
+ * named after the measure and the labels of the values, e.g. "utility-(0.01)-uniqueness" with
+ * "pivot = Threshold, Model" and "labels.UNIQUENESS_PITMAN = uniqueness". Values without a label
+ * are written in parentheses. Rows and Columns are written as numbers of records and columns.<br>
+ * <br>
+ * Runs are ordered by dataset first and by toggles last. The values of all dimensions after models can be
+ * specified for individual datasets and models, e.g. "thresholds.K_ANONYMITY = 2, 5".
+ *
+ * @author Fabian Prasser
+ * @author Florian Kohlmayer
+ */
+public class BenchmarkSpec {
+
+    /**
+     * A single run of an experiment
+     *
+     * @author Fabian Prasser
+     */
+    public static class Run {
+
+        /** Index in the matrix */
+        private final int                  index;
+
+        /** Values of all dimensions */
+        private final Map<String, String>  values;
+
+        /** Dataset */
+        private final String               dataset;
+
+        /** Model */
+        private final BenchmarkPrivacyModel model;
+
+        /** Threshold */
+        private final double               threshold;
+
+        /** Metric */
+        private final BenchmarkUtilityMeasure metric;
+
+        /** Suppression limit */
+        private final double               outliers;
+
+        /** Fraction of rows */
+        private final double               rows;
+
+        /** Number of columns with hierarchies */
+        private final int                  columns;
+
+        /** Time limit */
+        private final long                 budget;
+
+        /** Algorithm */
+        private final BenchmarkAlgorithm   algorithm;
+
+        /** Number of workers */
+        private final int                  threads;
+
+        /** Toggles */
+        private final Map<String, Boolean> toggles;
+
+        /**
+         * Creates a new instance
+         *
+         * @param index
+         * @param values
+         */
+        private Run(int index, Map<String, String> values) {
+            this.index = index;
+            this.values = values;
+            this.dataset = values.get(DATASET);
+            this.model = BenchmarkPrivacyModel.valueOf(values.get(MODEL));
+            this.threshold = Double.valueOf(values.get(THRESHOLD));
+            this.metric = BenchmarkUtilityMeasure.valueOf(values.get(METRIC));
+            this.outliers = Double.valueOf(values.get(OUTLIERS));
+            this.rows = Double.valueOf(values.get(ROWS));
+            this.columns = values.get(COLUMNS).equals(ALL) ? Integer.MAX_VALUE : Integer.valueOf(values.get(COLUMNS));
+            this.budget = values.get(BUDGET).equals(NONE) ? Long.MAX_VALUE : Long.valueOf(values.get(BUDGET));
+            this.algorithm = BenchmarkAlgorithm.valueOf(values.get(ALGORITHM));
+            this.threads = Integer.valueOf(values.get(THREADS));
+            this.toggles = new LinkedHashMap<String, Boolean>();
+            for (String key : values.keySet()) {
+                if (key.startsWith(TOGGLE)) {
+                    toggles.put(key.substring(TOGGLE.length()), Boolean.valueOf(values.get(key)));
+                }
+            }
+            if (rows <= 0d || rows > 1d) {
+                throw new IllegalArgumentException("Invalid fraction of rows: " + rows);
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("Invalid number of threads: " + threads);
+            }
+        }
+
+        /**
+         * Returns the algorithm
+         *
+         * @return
+         */
+        public BenchmarkAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * Returns the time limit in milliseconds, Long.MAX_VALUE if there is none
+         *
+         * @return
+         */
+        public long getBudget() {
+            return budget;
+        }
+
+        /**
+         * Returns the number of columns with hierarchies, Integer.MAX_VALUE for all
+         *
+         * @return
+         */
+        public int getColumns() {
+            return columns;
+        }
+
+        /**
+         * Returns the dataset
+         *
+         * @return
+         */
+        public String getDataset() {
+            return dataset;
+        }
+
+        /**
+         * Returns the index in the matrix
+         *
+         * @return
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the values of the given key columns
+         *
+         * @param keys
+         * @return
+         */
+        public String[] getKeys(String[] keys) {
+            String[] result = getValues(keys);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(MODEL)) {
+                    result[i] = model.toString();
+                } else if (keys[i].equals(METRIC)) {
+                    result[i] = metric.toString();
+                } else if (keys[i].equals(ALGORITHM)) {
+                    result[i] = algorithm.toString();
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the metric
+         *
+         * @return
+         */
+        public BenchmarkUtilityMeasure getMetric() {
+            return metric;
+        }
+
+        /**
+         * Returns the model
+         *
+         * @return
+         */
+        public BenchmarkPrivacyModel getModel() {
+            return model;
+        }
+
+        /**
+         * Returns the suppression limit
+         *
+         * @return
+         */
+        public double getOutliers() {
+            return outliers;
+        }
+
+        /**
+         * Returns the fraction of rows
+         *
+         * @return
+         */
+        public double getRows() {
+            return rows;
+        }
+
+        /**
+         * Returns the threshold
+         *
+         * @return
+         */
+        public double getThreshold() {
+            return threshold;
+        }
+
+        /**
+         * Returns the number of workers
+         *
+         * @return
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Returns the values of the given columns as specified
+         *
+         * @param columns
+         * @return
+         */
+        public String[] getValues(String[] columns) {
+            String[] result = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                result[i] = values.containsKey(columns[i]) ? values.get(columns[i]) : values.get(TOGGLE + columns[i]);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the values of all toggles
+         *
+         * @return
+         */
+        public Map<String, Boolean> getToggles() {
+            return toggles;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(dataset).append(", ").append(model).append(" (").append(values.get(THRESHOLD)).append("), ");
+            builder.append(metric).append(", outliers: ").append(values.get(OUTLIERS));
+            builder.append(", rows: ").append(values.get(ROWS)).append(", columns: ").append(values.get(COLUMNS));
+            builder.append(", budget: ").append(values.get(BUDGET)).append(", algorithm: ").append(algorithm);
+            builder.append(", threads: ").append(threads);
+            for (String toggle : toggles.keySet()) {
+                builder.append(", ").append(toggle).append(": ").append(toggles.get(toggle));
+            }
+            return builder.toString();
+        }
+    }
+
+    /** Column */
+    public static final String  DATASET   = "Dataset";
+
+    /** Column */
+    public static final String  MODEL     = "Model";
+
+    /** Column */
+    public static final String  THRESHOLD = "Threshold";
+
+    /** Column */
+    public static final String  METRIC    = "Metric";
+
+    /** Column */
+    public static final String  OUTLIERS  = "Outliers";
+
+    /** Column */
+    public static final String  ROWS      = "Rows";
+
+    /** Column */
+    public static final String  COLUMNS   = "Columns";
+
+    /** Column */
+    public static final String  BUDGET    = "Budget";
+
+    /** Column */
+    public static final String  ALGORITHM = "Algorithm";
+
+    /** Column */
+    public static final String  THREADS   = "Threads";
+
+    /** Prefix of toggles */
+    private static final String TOGGLE    = "toggle.";
+
+    /** Prefix of labels */
+    private static final String LABEL     = "labels.";
+
+    /** Value */
+    private static final String ALL       = "all";
+
+    /** Value */
+    private static final String NONE      = "none";
+
+    /** Measures */
+    private static final List<String> MEASURES = Arrays.asList("time", "checks", "utility", "gap", "risks");
+
+    /**
+     * Loads a specification
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkSpec load(File file) throws IOException {
+        Properties properties = new Properties();
+        Reader reader = new InputStreamReader(new FileInputStream(file), Charset.defaultCharset());
+        try {
+            properties.load(reader);
+        } finally {
+            reader.close();
+        }
+        return new BenchmarkSpec(file, properties);
+    }
+
+    /** The file */
+    private final File                file;
+
+    /** Output */
+    private final File                output;
+
+    /** Dimensions and their values, in the order of nesting */
+    private final Map<String, List<String>> dimensions;
+
+    /** Values of dimensions for specific datasets or models */
+    private final Map<String, List<String>> overrides;
+
+    /** Key columns */
+    private final String[]            keys;
+
+    /** Pivot columns */
+    private final String[]            pivot;
+
+    /** Labels */
+    private final Map<String, String> labels;
+
+    /** Measures */
+    private final List<String>        measures;
+
+    /** Populations for which risks are measured */
+    private final Map<String, Double> populations;
+
+    /** Population */
+    private final double              population;
+
+    /** Repetitions */
+    private final int                 repetitions;
+
+    /** Warmup */
+    private final boolean             warmup;
+
+    /** Interval of progress reports */
+    private final long                progress;
+
+    /**
+     * Creates a new instance
+     *
+     * @param file
+     * @param properties
+     */
+    private BenchmarkSpec(File file, Properties properties) {
+
+        this.file = file;
+        String output = properties.getProperty("output");
+        if (output == null) {
+            throw new IllegalArgumentException("No output specified in " + file);
+        }
+        this.output = new File(output.trim());
+
+        // Dimensions
+        this.dimensions = new LinkedHashMap<String, List<String>>();
+        this.overrides = new LinkedHashMap<String, List<String>>();
+        this.dimensions.put(DATASET, getList(properties, "datasets", null));
+        this.dimensions.put(MODEL, getList(properties, "models", "UNIQUENESS_PITMAN"));
+        addDimension(properties, THRESHOLD, "thresholds", "0.01");
+        addDimension(properties, METRIC, "metrics", "LOSS");
+        addDimension(properties, OUTLIERS, "outliers", "1.0");
+        addDimension(properties, COLUMNS, "columns", ALL);
+        addDimension(properties, ROWS, "rows", "1.0");
+        addDimension(properties, BUDGET, "budgets", NONE);
+        addDimension(properties, ALGORITHM, "algorithms", BenchmarkAlgorithm.FLASH.name());
+        addDimension(properties, THREADS, "threads", "1");
+        List<String> toggles = new ArrayList<String>(properties.stringPropertyNames());
+        Collections.sort(toggles);
+        for (String toggle : toggles) {
+            if (toggle.startsWith(TOGGLE)) {
+                this.dimensions.put(toggle, getList(properties, toggle, null));
+            }
+        }
+
+        // Keys and pivot
+        List<String> pivot = new ArrayList<String>();
+        if (properties.getProperty("pivot") != null) {
+            pivot.addAll(getList(properties, "pivot", null));
+        }
+        List<String> keys = new ArrayList<String>();
+        if (properties.getProperty("keys") != null) {
+            keys.addAll(getList(properties, "keys", null));
+        } else {
+            keys.add(DATASET);
+        }
+        for (String dimension : dimensions.keySet()) {
+            String column = getColumn(dimension);
+            if (isVarying(dimension) && !keys.contains(column) && !pivot.contains(column)) {
+                if (properties.getProperty("keys") != null) {
+                    throw new IllegalArgumentException("Dimension " + column + " has more than one value but is not a key in " + file);
+                }
+                keys.add(column);
+            }
+        }
+        for (String key : keys) {
+            if (!dimensions.containsKey(key) && !dimensions.containsKey(TOGGLE + key)) {
+                throw new IllegalArgumentException("Unknown key: " + key);
+            }
+        }
+        for (String column : pivot) {
+            if (!dimensions.containsKey(column) && !dimensions.containsKey(TOGGLE + column)) {
+                throw new IllegalArgumentException("Unknown pivot column: " + column);
+            }
+            if (keys.contains(column)) {
+                throw new IllegalArgumentException("Pivot column " + column + " is also a key in " + file);
+            }
+        }
+        this.keys = keys.toArray(new String[keys.size()]);
+        this.pivot = pivot.toArray(new String[pivot.size()]);
+        this.labels = new LinkedHashMap<String, String>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(LABEL)) {
+                this.labels.put(name.substring(LABEL.length()), properties.getProperty(name).trim());
+            }
+        }
+
+        // Measures
+        this.measures = getList(properties, "measures", "time, checks");
+        for (String measure : measures) {
+            if (!MEASURES.contains(measure)) {
+                throw new IllegalArgumentException("Unknown measure: " + measure);
+            }
+        }
+        this.populations = new LinkedHashMap<String, Double>();
+        for (String population : getList(properties, "populations", "USA: " + (long) BenchmarkSetup.POPULATION_USA)) {
+            int separator = population.lastIndexOf(':');
+            if (separator == -1) {
+                throw new IllegalArgumentException("Invalid population: " + population);
+            }
+            this.populations.put(population.substring(0, separator).trim(), Double.valueOf(population.substring(separator + 1).trim()));
+        }
+
+        // Parameters
+        this.population = Double.valueOf(properties.getProperty("population", String.valueOf((long) BenchmarkSetup.POPULATION_USA)).trim());
+        this.repetitions = Integer.valueOf(properties.getProperty("repetitions", "1").trim());
+        this.warmup = Boolean.valueOf(properties.getProperty("warmup", String.valueOf(repetitions > 1)).trim());
+        this.progress = Long.valueOf(properties.getProperty("progress", "0").trim());
+        if (repetitions < 1) {
+            throw new IllegalArgumentException("Invalid number of repetitions: " + repetitions);
+        }
+    }
+
+    /**
+     * Returns the file from which the specification has been loaded
+     *
+     * @return
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the columns identifying runs
+     *
+     * @return
+     */
+    public String[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns the label of the given key, measure or value, or the default label if there is none
+     *
+     * @param name
+     * @param defaultLabel
+     * @return
+     */
+    public String getLabel(String name, String defaultLabel) {
+        return labels.containsKey(name) ? labels.get(name) : defaultLabel;
+    }
+
+    /**
+     * Returns the measures
+     *
+     * @return
+     */
+    public List<String> getMeasures() {
+        return measures;
+    }
+
+    /**
+     * Returns the output file
+     *
+     * @return
+     */
+    public File getOutput() {
+        return output;
+    }
+
+    /**
+     * Returns the columns whose values are spread across the measures
+     *
+     * @return
+     */
+    public String[] getPivot() {
+        return pivot;
+    }
+
+    /**
+     * Returns the populations for which risks are measured
+     *
+     * @return
+     */
+    public Map<String, Double> getPopulations() {
+        return populations;
+    }
+
+    /**
+     * Returns the size of the population
+     *
+     * @return
+     */
+    public double getPopulation() {
+        return population;
+    }
+
+    /**
+     * Returns the interval of progress reports in milliseconds, 0 if progress is not reported
+     *
+     * @return
+     */
+    public long getProgress() {
+        return progress;
+    }
+
+    /**
+     * Returns the number of measured repetitions per run
+     *
+     * @return
+     */
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    /**
+     * Expands the specification into the matrix of runs
+     *
+     * @return
+     */
+    public List<Run> getRuns() {
+        List<Run> runs = new ArrayList<Run>();
+        getRuns(new ArrayList<String>(dimensions.keySet()), new LinkedHashMap<String, String>(), runs);
+        return runs;
+    }
+
+    /**
+     * Returns whether a warmup is performed
+     *
+     * @return
+     */
+    public boolean isWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Adds a dimension, which may be overridden for datasets and models by appending their names
+     * to the key, e.g. "thresholds.K_ANONYMITY" or "columns.cup"
+     *
+     * @param properties
+     * @param dimension
+     * @param key
+     * @param defaultValue
+     */
+    private void addDimension(Properties properties, String dimension, String key, String defaultValue) {
+        dimensions.put(dimension, getList(properties, key, defaultValue));
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(key + ".")) {
+                overrides.put(dimension + "." + name.substring(key.length() + 1), getList(properties, name, null));
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the column of the given dimension
+     *
+     * @param dimension
+     * @return
+     */
+    private static String getColumn(String dimension) {
+        return dimension.startsWith(TOGGLE) ? dimension.substring(TOGGLE.length()) : dimension;
+    }
+
+    /**
+     * Adds all runs which extend the given values of the first dimensions, the last dimension
+     * changes fastest
+     *
+     * @param names
+     * @param values
+     * @param runs
+     */
+    private void getRuns(List<String> names, Map<String, String> values, List<Run> runs) {
+        if (values.size() == names.size()) {
+            runs.add(new Run(runs.size(), new LinkedHashMap<String, String>(values)));
+            return;
+        }
+        String dimension = names.get(values.size());
+        for (String value : getValues(dimension, values)) {
+            values.put(dimension, value);
+            getRuns(names, values, runs);
+            values.remove(dimension);
+        }
+    }
+
+    /**
+     * Returns the values of the given dimension for the given values of the previous dimensions.
+     * Overrides for models take precedence over overrides for datasets.
+     *
+     * @param dimension
+     * @param values
+     * @return
+     */
+    private List<String> getValues(String dimension, Map<String, String> values) {
+        List<String> result = null;
+        if (values.containsKey(MODEL)) {
+            result = overrides.get(dimension + "." + values.get(MODEL));
+        }
+        if (result == null && values.containsKey(DATASET)) {
+            result = overrides.get(dimension + "." + values.get(DATASET));
+        }
+        return result != null ? result : dimensions.get(dimension);
+    }
+
+    /**
+     * Returns whether the given dimension may have more than one value
+     *
+     * @param dimension
+     * @return
+     */
+    private boolean isVarying(String dimension) {
+        if (dimensions.get(dimension).size() > 1) {
+            return true;
+        }
+        for (String override : overrides.keySet()) {
+            if (override.startsWith(dimension + ".") && !overrides.get(override).equals(dimensions.get(dimension))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the comma-separated list with the given key
+     *
+     * @param properties
+     * @param key
+     * @param defaultValue
+     * @return
+     */
+    private List<String> getList(Properties properties, String key, String defaultValue) {
+        String value = properties.getProperty(key, defaultValue);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("No value specified for " + key + " in " + file);
+        }
+        List<String> result = new ArrayList<String>();
+        for (String element : value.split(",")) {
+            result.add(element.trim());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,527 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXPopulationModel;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.ARXSolverConfiguration;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.algorithm.FLASHRadixSort;
+import org.deidentifier.arx.benchmark.BenchmarkHarness.Result;
+import org.deidentifier.arx.benchmark.BenchmarkHarness.Workload;
+import org.deidentifier.arx.benchmark.BenchmarkHarness.WorkloadFactory;
+import org.deidentifier.arx.benchmark.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.benchmark.BenchmarkSetup.BenchmarkPrivacyModel;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.criteria.PopulationUniqueness;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifySuppressionIndex;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.metric.Metric.AggregateFunction;
+import org.deidentifier.arx.risk.ModelPitman;
+import org.deidentifier.arx.risk.RiskModelHistogram;
+import org.deidentifier.arx.risk.RiskModelPopulationUniqueness;
+import org.deidentifier.arx.risk.RiskModelPopulationUniqueness.PopulationUniquenessModel;
+
+import com.carrotsearch.hppc.IntIntOpenHashMap;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.analyzer.ValueBuffer;
+
+/**
+ * Suite of benchmarks which are measured with BenchmarkHarness: end-to-end anonymization per dataset and
+ * privacy model, solving the Pitman model, the search of RiskBasedCriterion on a suppression index and the
+ * radix sort used for sorting levels in FLASH. The microbenchmarks operate on the classes of the bottom
+ * transformation of each dataset.<br>
+ * <br>
+ * All results are written to results/suite.csv. The results of end-to-end runs with population uniqueness
+ * are additionally written in the layout of results/impact-baseline.csv to results/suite-impact-baseline.csv.
+ * Arguments select workloads by prefix, e.g. "pitman" or "anonymize/ADULT".
+ *
+ * @author Fabian Prasser
+ * @author Florian Kohlmayer
+ */
+public abstract class BenchmarkSuite {
+
+    /**
+     * End-to-end anonymization
+     *
+     * @author Fabian Prasser
+     */
+    private static class AnonymizationWorkload implements Workload {
+
+        /** Dataset */
+        private final BenchmarkDataset      dataset;
+        /** Model */
+        private final BenchmarkPrivacyModel model;
+        /** Data */
+        private Data                        data;
+        /** Result of the last run */
+        private ARXResult                   result;
+
+        /**
+         * Creates a new instance
+         * @param dataset
+         * @param model
+         */
+        private AnonymizationWorkload(BenchmarkDataset dataset, BenchmarkPrivacyModel model) {
+            this.dataset = dataset;
+            this.model = model;
+        }
+
+        @Override
+        public Map<String, Double> getValues() {
+            Map<String, Double> values = new LinkedHashMap<String, Double>();
+            int checks = 0;
+            for (ARXNode[] level : result.getLattice().getLevels()) {
+                for (ARXNode node : level) {
+                    if (node.isChecked()) {
+                        checks++;
+                    }
+                }
+            }
+            values.put(CHECKS, (double) checks);
+            return values;
+        }
+
+        @Override
+        public void run() throws IOException {
+            result = new ARXAnonymizer().anonymize(data, getConfiguration(model));
+            data.getHandle().release();
+        }
+
+        @Override
+        public void setup() throws IOException {
+            data = BenchmarkSetup.getData(dataset);
+        }
+    }
+
+    /**
+     * Search of RiskBasedCriterion for the smallest number of suppressed classes which fulfills
+     * population uniqueness on a suppression index
+     *
+     * @author Fabian Prasser
+     */
+    private static class EnforcementWorkload implements Workload {
+
+        /** Dataset */
+        private final BenchmarkDataset       dataset;
+        /** Index */
+        private HashGroupifySuppressionIndex index;
+        /** Criterion */
+        private PopulationUniqueness         criterion;
+        /** Cut found by the last run */
+        private int                          cut;
+
+        /**
+         * Creates a new instance
+         * @param dataset
+         */
+        private EnforcementWorkload(BenchmarkDataset dataset) {
+            this.dataset = dataset;
+        }
+
+        @Override
+        public Map<String, Double> getValues() {
+            Map<String, Double> values = new LinkedHashMap<String, Double>();
+            values.put("cut", (double) cut);
+            return values;
+        }
+
+        @Override
+        public void run() {
+            cut = criterion.getCut(index, index.getNumRecords(0));
+        }
+
+        @Override
+        public void setup() throws IOException {
+            index = new HashGroupifySuppressionIndex(getHistogram(dataset));
+            criterion = new HistogramPopulationUniqueness(UNIQUENESS,
+                                                          ARXPopulationModel.create((long) POPULATION_USA),
+                                                          getSolverConfiguration());
+        }
+    }
+
+    /**
+     * Population uniqueness with the Pitman model, decided on histograms of class sizes, so that it can be
+     * searched on a suppression index. The criterion of the ARX library is enforced on distributions only.
+     *
+     * @author Fabian Prasser
+     */
+    private static class HistogramPopulationUniqueness extends PopulationUniqueness {
+
+        /** SVUID */
+        private static final long            serialVersionUID = -3400935325395264389L;
+        /** Population */
+        private final ARXPopulationModel     population;
+        /** Solver configuration */
+        private final ARXSolverConfiguration config;
+
+        /**
+         * Creates a new instance
+         * @param threshold
+         * @param population
+         * @param config
+         */
+        private HistogramPopulationUniqueness(double threshold, ARXPopulationModel population, ARXSolverConfiguration config) {
+            super(threshold, PopulationUniquenessModel.PITMAN, population, config);
+            this.population = population;
+            this.config = config;
+        }
+
+        @Override
+        protected boolean isFulfilled(RiskModelHistogram histogram) {
+            return new RiskModelPopulationUniqueness(population, histogram, config).getFractionOfUniqueTuplesPitman() <= getRiskThreshold();
+        }
+
+        @Override
+        protected boolean isHistogramBased() {
+            return true;
+        }
+    }
+
+    /**
+     * Solving the Pitman model
+     *
+     * @author Fabian Prasser
+     */
+    private static class PitmanWorkload implements Workload {
+
+        /** Dataset */
+        private final BenchmarkDataset dataset;
+        /** Histogram */
+        private RiskModelHistogram     histogram;
+        /** Result of the last run */
+        private double                 uniques;
+
+        /**
+         * Creates a new instance
+         * @param dataset
+         */
+        private PitmanWorkload(BenchmarkDataset dataset) {
+            this.dataset = dataset;
+        }
+
+        @Override
+        public Map<String, Double> getValues() {
+            Map<String, Double> values = new LinkedHashMap<String, Double>();
+            values.put("uniques", uniques);
+            return values;
+        }
+
+        @Override
+        public void run() {
+            uniques = new ModelPitman(ARXPopulationModel.create((long) POPULATION_USA), histogram, getSolverConfiguration()).getNumUniques();
+        }
+
+        @Override
+        public void setup() throws IOException {
+            histogram = getHistogram(dataset);
+        }
+    }
+
+    /**
+     * Sorting a level of the solution space
+     *
+     * @author Fabian Prasser
+     */
+    private static class SortWorkload implements Workload {
+
+        /** Number of transformations */
+        private final int        size;
+        /** Keys */
+        private int[]            keys;
+        /** Values */
+        private long[]           values;
+        /** Checksum of the last run */
+        private long             checksum;
+
+        /**
+         * Creates a new instance
+         * @param size
+         */
+        private SortWorkload(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Map<String, Double> getValues() {
+            Map<String, Double> values = new LinkedHashMap<String, Double>();
+            values.put("checksum", (double) checksum);
+            return values;
+        }
+
+        @Override
+        public void run() {
+            int[] keys = this.keys.clone();
+            long[] values = this.values.clone();
+            FLASHRadixSort.sort(keys, values, Runtime.getRuntime().availableProcessors());
+            checksum += values[0] + values[values.length - 1];
+        }
+
+        @Override
+        public void setup() {
+            Random random = new Random(0xdeadbeef);
+            keys = new int[size];
+            values = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = random.nextInt(1 << 24);
+                values[i] = i;
+            }
+        }
+    }
+
+    /**
+     * Creates the workloads of this suite in the forks of BenchmarkHarness
+     *
+     * @author Fabian Prasser
+     */
+    public static class Workloads implements WorkloadFactory {
+
+        @Override
+        public Workload create(String name) {
+            return getWorkload(name);
+        }
+    }
+
+    /** The benchmark instance */
+    private static final Benchmark  BENCHMARK           = new Benchmark(new String[] { "Benchmark", "Dataset", "Model" });
+    /** TOTAL */
+    public static final int         TIME                = BENCHMARK.addMeasure("time");
+    /** TOTAL */
+    public static final int         ERROR               = BENCHMARK.addMeasure("time-error");
+    /** TOTAL */
+    public static final int         STDEV               = BENCHMARK.addMeasure("time-stdev");
+    /** The benchmark instance in the layout of impact-baseline.csv */
+    private static final Benchmark  BENCHMARK_BASELINE  = new Benchmark(new String[] { "Dataset" });
+    /** TOTAL */
+    public static final int         BASELINE_TIME       = BENCHMARK_BASELINE.addMeasure("time");
+    /** TOTAL */
+    public static final int         BASELINE_CHECKS     = BENCHMARK_BASELINE.addMeasure("checks");
+    /** VALUE */
+    private static final double[][] SOLVER_START_VALUES = getSolverStartValues();
+    /** VALUE */
+    private static final double     POPULATION_USA      = 318.9 * Math.pow(10d, 6d);
+    /** VALUE */
+    private static final double     UNIQUENESS          = 0.01d;
+    /** VALUE */
+    private static final int[]      SORT_SIZES          = new int[] { 1 << 12, 1 << 16, 1 << 20 };
+    /** Name of the value */
+    private static final String     CHECKS              = "checks";
+
+    /**
+     * Main. Without arguments, runs all workloads. Otherwise, runs all workloads whose names start with
+     * one of the arguments.
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Init
+        BENCHMARK.addAnalyzer(TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(ERROR, new ValueBuffer());
+        BENCHMARK.addAnalyzer(STDEV, new ValueBuffer());
+        BENCHMARK_BASELINE.addAnalyzer(BASELINE_TIME, new ValueBuffer());
+        BENCHMARK_BASELINE.addAnalyzer(BASELINE_CHECKS, new ValueBuffer());
+
+        // Perform
+        for (String workload : getWorkloads()) {
+            if (!isSelected(workload, args)) {
+                continue;
+            }
+            System.out.println(" - Workload: " + workload + ". Started at: " + new Timestamp(System.currentTimeMillis()).toString());
+            Result result = BenchmarkHarness.measure(Workloads.class, workload);
+            System.out.println("   * " + result);
+
+            // Store
+            String[] parts = workload.split("/");
+            BENCHMARK.addRun(parts[0], parts[1], parts.length > 2 ? parts[2] : "");
+            BENCHMARK.addValue(TIME, result.getMean());
+            BENCHMARK.addValue(ERROR, result.getError());
+            BENCHMARK.addValue(STDEV, result.getStandardDeviation());
+            BENCHMARK.getResults().write(new File("results/suite.csv"));
+            if (parts[0].equals("anonymize") && parts[2].equals(BenchmarkPrivacyModel.UNIQUENESS_PITMAN.name())) {
+                BENCHMARK_BASELINE.addRun(parts[1].toLowerCase());
+                BENCHMARK_BASELINE.addValue(BASELINE_TIME, result.getMean());
+                BENCHMARK_BASELINE.addValue(BASELINE_CHECKS, result.getValue(CHECKS));
+                BENCHMARK_BASELINE.getResults().write(new File("results/suite-impact-baseline.csv"));
+            }
+        }
+    }
+
+    /**
+     * Returns the configuration for the given privacy model
+     * @param model
+     * @return
+     */
+    private static ARXConfiguration getConfiguration(BenchmarkPrivacyModel model) {
+        ARXConfiguration config = ARXConfiguration.create();
+        config.setMetric(Metric.createPrecomputedLossMetric(1.0d, 0.5d, AggregateFunction.GEOMETRIC_MEAN));
+        config.setMaxOutliers(1d);
+        switch (model) {
+        case K_ANONYMITY:
+            config.addCriterion(new KAnonymity(5));
+            break;
+        case UNIQUENESS_PITMAN:
+            config.addCriterion(new PopulationUniqueness(UNIQUENESS,
+                                                         PopulationUniquenessModel.PITMAN,
+                                                         ARXPopulationModel.create((long)POPULATION_USA),
+                                                         getSolverConfiguration()));
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported privacy model: " + model);
+        }
+        return config;
+    }
+
+    /**
+     * Returns the histogram of the sizes of the classes of the bottom transformation of the given dataset
+     * @param dataset
+     * @return
+     * @throws IOException
+     */
+    private static RiskModelHistogram getHistogram(BenchmarkDataset dataset) throws IOException {
+
+        // Columns
+        Data data = BenchmarkSetup.getData(dataset);
+        DataHandle handle = data.getHandle();
+        String[] attributes = BenchmarkSetup.getQuasiIdentifyingAttributes(dataset);
+        int[] columns = new int[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            columns[i] = handle.getColumnIndexOf(attributes[i]);
+        }
+
+        // Group
+        Map<List<String>, Integer> classes = new HashMap<List<String>, Integer>();
+        Iterator<String[]> iter = handle.iterator();
+        iter.next();
+        while (iter.hasNext()) {
+            String[] values = iter.next();
+            List<String> key = new ArrayList<String>(columns.length);
+            for (int i = 0; i < columns.length; i++) {
+                key.add(values[columns[i]]);
+            }
+            Integer count = classes.get(key);
+            classes.put(key, count == null ? 1 : count + 1);
+        }
+
+        // Count sizes
+        IntIntOpenHashMap sizes = new IntIntOpenHashMap();
+        for (int size : classes.values()) {
+            sizes.putOrAdd(size, 1, 1);
+        }
+        return new RiskModelHistogram(sizes);
+    }
+
+    /**
+     * Returns the solver configuration
+     * @return
+     */
+    private static ARXSolverConfiguration getSolverConfiguration() {
+        return ARXSolverConfiguration.create().preparedStartValues(SOLVER_START_VALUES).iterationsPerTry(10);
+    }
+
+    private static double[][] getSolverStartValues() {
+        double[][] result = new double[16][];
+        int index = 0;
+        for (double d1 = 0d; d1 < 1d; d1 += 0.33d) {
+            for (double d2 = 0d; d2 < 1d; d2 += 0.33d) {
+                result[index++] = new double[] { d1, d2 };
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the workload with the given name
+     * @param name
+     * @return
+     */
+    private static Workload getWorkload(String name) {
+        String[] parts = name.split("/");
+        if (parts[0].equals("anonymize")) {
+            return new AnonymizationWorkload(BenchmarkDataset.valueOf(parts[1]), BenchmarkPrivacyModel.valueOf(parts[2]));
+        } else if (parts[0].equals("pitman")) {
+            return new PitmanWorkload(BenchmarkDataset.valueOf(parts[1]));
+        } else if (parts[0].equals("enforce")) {
+            return new EnforcementWorkload(BenchmarkDataset.valueOf(parts[1]));
+        } else if (parts[0].equals("sort")) {
+            return new SortWorkload(Integer.parseInt(parts[1]));
+        } else {
+            throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+    }
+
+    /**
+     * Returns the names of all workloads
+     * @return
+     */
+    private static List<String> getWorkloads() {
+        List<String> workloads = new ArrayList<String>();
+        BenchmarkPrivacyModel[] models = new BenchmarkPrivacyModel[] { BenchmarkPrivacyModel.UNIQUENESS_PITMAN,
+                                                                       BenchmarkPrivacyModel.K_ANONYMITY };
+        for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+            for (BenchmarkPrivacyModel model : models) {
+                workloads.add("anonymize/" + dataset.name() + "/" + model.name());
+            }
+        }
+        for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+            workloads.add("pitman/" + dataset.name());
+        }
+        for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+            workloads.add("enforce/" + dataset.name());
+        }
+        for (int size : SORT_SIZES) {
+            workloads.add("sort/" + size);
+        }
+        return workloads;
+    }
+
+    /**
+     * Returns whether the given workload is selected by the given prefixes
+     * @param workload
+     * @param prefixes
+     * @return
+     */
+    private static boolean isSelected(String workload, String[] prefixes) {
+        if (prefixes == null || prefixes.length == 0) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (workload.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.deidentifier.arx.algorithm.FLASHEventLog;
+import org.deidentifier.arx.algorithm.FLASHEventLog.Event;
+
+/**
+ * Summarizes or replays an event log written by FLASH, see FLASHAlgorithmImpl.EVENT_LOG_FILE. The summary
+ * shows the time per phase and action, the time per level, the hottest transformations and wasted checks,
+ * which are checks of transformations that had already been checked. The replay prints all events in order
+ * together with the number of checks and the check time so far.
+ *
+ * @author Fabian Prasser
+ * @author Florian Kohlmayer
+ */
+public abstract class EventLogAnalyzer {
+
+    /** Number of hottest transformations shown */
+    private static final int HOTTEST = 10;
+
+    /**
+     * Main
+     * @param args log [replay]
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Parse commandline
+        if (args == null || args.length == 0) {
+            System.out.println("Usage: EventLogAnalyzer <log> [replay]");
+            return;
+        }
+        File file = new File(args[0]);
+        if (args.length > 1 && args[1].equals("replay")) {
+            replay(file);
+        } else {
+            summarize(file);
+        }
+    }
+
+    /**
+     * Prints all events
+     *
+     * @param file
+     * @throws IOException
+     */
+    private static void replay(File file) throws IOException {
+        FLASHEventLog.Reader reader = new FLASHEventLog.Reader(file);
+        try {
+            Event event = new Event();
+            long checks = 0;
+            long time = 0;
+            while (reader.next(event)) {
+                if (event.action == FLASHEventLog.ACTION_CHECK) {
+                    checks++;
+                    time += event.duration;
+                }
+                System.out.println(event + " | checks: " + checks + ", check time: " + toMillis(time) + "[ms]");
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Prints a summary
+     *
+     * @param file
+     * @throws IOException
+     */
+    private static void summarize(File file) throws IOException {
+
+        // Statistics: count, time
+        long[][][] phases = new long[FLASHEventLog.PHASES.length][FLASHEventLog.ACTIONS.length][2];
+        Map<Integer, long[]> levels = new TreeMap<Integer, long[]>();
+        final Map<Long, long[]> nodes = new HashMap<Long, long[]>();
+        long events = 0;
+        long end = 0;
+        long anonymous = 0;
+        long wasted = 0;
+        long wastedTime = 0;
+        int queue = 0;
+
+        // Read
+        FLASHEventLog.Reader reader = new FLASHEventLog.Reader(file);
+        try {
+            Event event = new Event();
+            while (reader.next(event)) {
+                events++;
+                end = event.time;
+                queue = Math.max(queue, event.queue);
+                phases[event.phase][event.action][0]++;
+                phases[event.phase][event.action][1] += event.duration;
+                if (event.action != FLASHEventLog.ACTION_CHECK) {
+                    continue;
+                }
+                if (event.outcome == FLASHEventLog.OUTCOME_ANONYMOUS) {
+                    anonymous++;
+                }
+
+                // Levels: checks, time
+                long[] level = levels.get(event.level);
+                if (level == null) {
+                    level = new long[2];
+                    levels.put(event.level, level);
+                }
+                level[0]++;
+                level[1] += event.duration;
+
+                // Transformations: level, checks, time
+                long[] node = nodes.get(event.id);
+                if (node == null) {
+                    node = new long[] { event.level, 0, 0 };
+                    nodes.put(event.id, node);
+                } else {
+                    wasted++;
+                    wastedTime += event.duration;
+                }
+                node[1]++;
+                node[2] += event.duration;
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Overview
+        long checks = 0;
+        for (long[] level : levels.values()) {
+            checks += level[0];
+        }
+        System.out.println("Events: " + events + ", duration: " + toMillis(end) + "[ms], checks: " + checks +
+                           ", anonymous: " + anonymous + ", maximal queue size: " + queue);
+
+        // Phases
+        System.out.println("Time per phase:");
+        for (int phase = 0; phase < phases.length; phase++) {
+            for (int action = 0; action < phases[phase].length; action++) {
+                long[] values = phases[phase][action];
+                if (values[0] != 0) {
+                    System.out.println(" - " + FLASHEventLog.PHASES[phase] + " " + FLASHEventLog.ACTIONS[action] + ": " +
+                                       values[0] + " events, " + toMillis(values[1]) + "[ms]");
+                }
+            }
+        }
+
+        // Levels
+        System.out.println("Checks per level:");
+        for (Entry<Integer, long[]> entry : levels.entrySet()) {
+            System.out.println(" - Level " + entry.getKey() + ": " + entry.getValue()[0] + " checks, " +
+                               toMillis(entry.getValue()[1]) + "[ms]");
+        }
+
+        // Hottest transformations
+        List<Long> hottest = new ArrayList<Long>(nodes.keySet());
+        Collections.sort(hottest, new Comparator<Long>() {
+            @Override
+            public int compare(Long o1, Long o2) {
+                return Long.compare(nodes.get(o2)[2], nodes.get(o1)[2]);
+            }
+        });
+        System.out.println("Hottest transformations:");
+        for (int i = 0; i < Math.min(HOTTEST, hottest.size()); i++) {
+            long[] node = nodes.get(hottest.get(i));
+            System.out.println(" - Id " + hottest.get(i) + ", level " + node[0] + ": " + node[1] + " checks, " +
+                               toMillis(node[2]) + "[ms]");
+        }
+
+        // Wasted checks
+        System.out.println("Wasted checks: " + wasted + ", " + toMillis(wastedTime) + "[ms]");
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds
+     *
+     * @param nanos
+     * @return
+     */
+    private static double toMillis(long nanos) {
+        return (double) nanos / 1000000d;
+    }
+}
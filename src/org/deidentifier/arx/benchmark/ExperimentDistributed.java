@@ -0,0 +1,320 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXPopulationModel;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.ARXSolverConfiguration;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.algorithm.FLASHAlgorithmImpl;
+import org.deidentifier.arx.algorithm.FLASHCoordinator;
+import org.deidentifier.arx.criteria.PopulationUniqueness;
+import org.deidentifier.arx.io.CSVHierarchyInput;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.metric.Metric.AggregateFunction;
+import org.deidentifier.arx.risk.RiskModelPopulationUniqueness.PopulationUniquenessModel;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.analyzer.ValueBuffer;
+
+/**
+ * Experiment to evaluate distributed traversals. For each number of workers, a coordinator is started
+ * and one process per worker traverses one partition of the solution space on the local machine.
+ * Each worker obtains an equal share of the heap of this process.
+ *
+ * @author Fabian Prasser
+ * @author Florian Kohlmayer
+ */
+public abstract class ExperimentDistributed {
+
+    /** The benchmark instance */
+    private static final Benchmark  BENCHMARK            = new Benchmark(new String[] { "Dataset", "Workers" });
+
+    /** TOTAL */
+    public static final int         TIME                 = BENCHMARK.addMeasure("time");
+    /** TOTAL */
+    public static final int         SPEEDUP              = BENCHMARK.addMeasure("speedup");
+    /** TOTAL */
+    public static final int         CHECKS               = BENCHMARK.addMeasure("checks");
+    /** TOTAL */
+    public static final int         UTILITY              = BENCHMARK.addMeasure("utility");
+    /** TOTAL */
+    public static final int         WORKER_TIME          = BENCHMARK.addMeasure("worker-time");
+    /** TOTAL */
+    public static final int         COMMUNICATION        = BENCHMARK.addMeasure("communication");
+    /** VALUE */
+    private static final double[][] SOLVER_START_VALUES  = getSolverStartValues();
+    /** VALUE */
+    private static final double     POPULATION_USA       = 318.9 * Math.pow(10d, 6d);
+    /** Numbers of workers */
+    private static final int[]      WORKERS              = new int[] { 1, 2, 4, 8 };
+    /** Quasi-identifiers whose generalization levels define the partitions */
+    private static final int[]      PARTITION_ATTRIBUTES = new int[] { 0, 1 };
+    /** Prefix of the result line of a worker */
+    private static final String     RESULT               = "Result: ";
+
+    /**
+     * Main. Without arguments, runs the experiment. With arguments "worker dataset port index count",
+     * traverses one partition.
+     *
+     * @param args
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        // Worker
+        if (args != null && args.length == 5 && args[0].equals("worker")) {
+            runWorker(args[1], Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+            return;
+        }
+
+        // Init
+        BENCHMARK.addAnalyzer(TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SPEEDUP, new ValueBuffer());
+        BENCHMARK.addAnalyzer(CHECKS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(UTILITY, new ValueBuffer());
+        BENCHMARK.addAnalyzer(WORKER_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(COMMUNICATION, new ValueBuffer());
+
+        // Perform
+        String[] datasets = new String[] { "cup", "ihis" };
+        for (String dataset : datasets) {
+            double baseline = Double.NaN;
+            for (int workers : WORKERS) {
+                System.out.println(" - Dataset: " + dataset + ", workers: " + workers + ". Started at: " + new Timestamp(System.currentTimeMillis()).toString());
+                BENCHMARK.addRun(dataset, String.valueOf(workers));
+                double time = analyze(dataset, workers);
+                if (workers == 1) {
+                    baseline = time;
+                }
+                BENCHMARK.addValue(SPEEDUP, baseline / time);
+                BENCHMARK.getResults().write(new File("results/distributed.csv"));
+            }
+        }
+    }
+
+    /**
+     * Traverses the solution space with the given number of worker processes and returns the time
+     *
+     * @param dataset
+     * @param workers
+     * @return
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private static double analyze(String dataset, int workers) throws IOException, InterruptedException {
+
+        // Prepare
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classpath = System.getProperty("java.class.path");
+        long heap = Runtime.getRuntime().maxMemory() / workers / (1024L * 1024L);
+        FLASHCoordinator coordinator = new FLASHCoordinator(0);
+        List<Process> processes = new ArrayList<Process>();
+        List<File> logs = new ArrayList<File>();
+
+        // Run
+        long time = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < workers; i++) {
+                File log = new File("results/distributed-" + dataset + "-" + workers + "-" + i + ".log");
+                ProcessBuilder builder = new ProcessBuilder(java, "-Xmx" + heap + "m", "-cp", classpath,
+                                                            ExperimentDistributed.class.getName(), "worker", dataset,
+                                                            String.valueOf(coordinator.getPort()),
+                                                            String.valueOf(i), String.valueOf(workers));
+                builder.redirectErrorStream(true);
+                builder.redirectOutput(log);
+                processes.add(builder.start());
+                logs.add(log);
+            }
+            for (int i = 0; i < workers; i++) {
+                if (processes.get(i).waitFor() != 0) {
+                    throw new IllegalStateException("Worker " + i + " failed, see: " + logs.get(i));
+                }
+            }
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+            coordinator.close();
+        }
+        time = System.currentTimeMillis() - time;
+
+        // Collect the best optimum of all partitions, the time of the slowest worker and the time spent communicating
+        double utility = Double.NaN;
+        long checks = 0;
+        long workerTime = 0;
+        double communication = 0d;
+        long published = 0;
+        for (File log : logs) {
+            for (String line : Files.readAllLines(log.toPath(), Charset.defaultCharset())) {
+                if (line.startsWith(RESULT)) {
+                    String[] result = line.substring(RESULT.length()).split(",");
+                    double value = Double.valueOf(result[0]);
+                    if (!Double.isNaN(value) && (Double.isNaN(utility) || value > utility)) {
+                        utility = value;
+                    }
+                    checks += Long.valueOf(result[1]);
+                    workerTime = Math.max(workerTime, Long.valueOf(result[2]));
+                    communication += Double.valueOf(result[3]);
+                    published += Long.valueOf(result[4]);
+                }
+            }
+        }
+        System.out.println("   * Time: " + time + "[ms], worker time: " + workerTime + "[ms], communication: " + communication +
+                           "[ms], checks: " + checks + ", utility: " + utility + ", published: " + published +
+                           ", requests: " + coordinator.getNumRequests());
+
+        BENCHMARK.addValue(TIME, (double) time);
+        BENCHMARK.addValue(CHECKS, checks);
+        BENCHMARK.addValue(UTILITY, utility);
+        BENCHMARK.addValue(WORKER_TIME, (double) workerTime);
+        BENCHMARK.addValue(COMMUNICATION, communication);
+        return time;
+    }
+
+    /**
+     * Returns the data object for the test case.
+     *
+     * @param dataset
+     * @return
+     * @throws IOException
+     */
+    private static Data getDataObject(final String dataset) throws IOException {
+
+        // Load dataset
+        final Data data = Data.create("./data/"+dataset+".csv", Charset.defaultCharset(), ';');
+
+        // Load hierarchies
+        prepareDataObject(dataset, data, Integer.MAX_VALUE);
+        return data;
+    }
+
+    private static double[][] getSolverStartValues() {
+        double[][] result = new double[16][];
+        int index = 0;
+        for (double d1 = 0d; d1 < 1d; d1 += 0.33d) {
+            for (double d2 = 0d; d2 < 1d; d2 += 0.33d) {
+                result[index++] = new double[] { d1, d2 };
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads hierarchies
+     * @param dataset
+     * @param data
+     * @param columns
+     * @return
+     * @throws IOException
+     */
+    private static void prepareDataObject(final String dataset, final Data data, int columns) throws IOException {
+
+        // Read generalization hierachies
+        final FilenameFilter hierarchyFilter = new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                if (name.matches(dataset+"_hierarchy_(.)+.csv")) {
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        };
+
+        final File testDir = new File("./hierarchies");
+        final File[] genHierFiles = testDir.listFiles(hierarchyFilter);
+        final Pattern pattern = Pattern.compile("_hierarchy_(.*?).csv");
+
+        for (final File file : genHierFiles) {
+            final Matcher matcher = pattern.matcher(file.getName());
+            if (matcher.find()) {
+                final CSVHierarchyInput hier = new CSVHierarchyInput(file, Charset.defaultCharset(),  ';');
+                final String attributeName = matcher.group(1);
+                if (data.getHandle().getColumnIndexOf(attributeName) < columns) {
+                    data.getDefinition().setAttributeType(attributeName, Hierarchy.create(hier.getHierarchy()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Traverses one partition and prints the utility of its optimum, the number of checks, the time of the
+     * traversal, the time spent communicating with the coordinator and the number of values published
+     *
+     * @param dataset
+     * @param port
+     * @param index
+     * @param count
+     * @throws IOException
+     */
+    private static void runWorker(String dataset, int port, int index, int count) throws IOException {
+
+        Data data = getDataObject(dataset);
+
+        // Uniqueness
+        ARXConfiguration config = ARXConfiguration.create();
+        config.setMetric(Metric.createPrecomputedLossMetric(1.0d, 0.5d, AggregateFunction.GEOMETRIC_MEAN));
+        config.setMaxOutliers(1d);
+        config.addCriterion(new PopulationUniqueness(0.01d,
+                                                     PopulationUniquenessModel.PITMAN,
+                                                     ARXPopulationModel.create((long)POPULATION_USA),
+                                                     ARXSolverConfiguration.create().preparedStartValues(SOLVER_START_VALUES)
+                                                     .iterationsPerTry(10)));
+
+        // Partition
+        FLASHAlgorithmImpl.PARTITION_COUNT = count;
+        FLASHAlgorithmImpl.PARTITION_INDEX = index;
+        FLASHAlgorithmImpl.PARTITION_ATTRIBUTES = PARTITION_ATTRIBUTES;
+        FLASHAlgorithmImpl.COORDINATOR_PORT = port;
+
+        // Run
+        long time = System.currentTimeMillis();
+        ARXResult result = new ARXAnonymizer().anonymize(data, config);
+        time = System.currentTimeMillis() - time;
+        int checks = 0;
+        for (ARXNode[] level : result.getLattice().getLevels()) {
+            for (ARXNode node : level) {
+                if (node.isChecked()) {
+                    checks++;
+                }
+            }
+        }
+        double utility = result.getGlobalOptimum() == null ? Double.NaN :
+                         1d - Double.valueOf(result.getGlobalOptimum().getMaximumInformationLoss().toString());
+        System.out.println(RESULT + utility + "," + checks + "," + time + "," +
+                           (FLASHCoordinator.Client.getTime() / 1000000d) + "," +
+                           FLASHCoordinator.Client.getNumPublished());
+    }
+}
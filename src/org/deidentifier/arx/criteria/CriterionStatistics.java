@@ -0,0 +1,228 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.criteria;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing counters for the evaluation of privacy criteria. Counters are kept per class of criterion,
+ * because ARX works on clones of the criteria that have been added to a configuration.
+ *
+ * @author Fabian Prasser
+ */
+public class CriterionStatistics {
+
+    /** Declared cost of criteria that are decided by counting, in nanoseconds per evaluation */
+    public static final double                              COST_COUNTING = 1000d;
+
+    /** Declared cost of criteria that are decided by solving a model, in nanoseconds per evaluation */
+    public static final double                              COST_MODEL    = 1000000d;
+
+    /** Statistics per class of criterion */
+    private static final Map<Class<?>, CriterionStatistics> STATISTICS    = new LinkedHashMap<Class<?>, CriterionStatistics>();
+
+    /** Orders sample-based criteria by ascending cost */
+    private static final Comparator<SampleBasedCriterion>  COMPARATOR    = new Comparator<SampleBasedCriterion>() {
+        @Override
+        public int compare(SampleBasedCriterion o1, SampleBasedCriterion o2) {
+            return Double.compare(getCost(o1), getCost(o2));
+        }
+    };
+
+    /**
+     * Returns a comparator which orders sample-based criteria by ascending declared cost. The order is
+     * fixed and does not depend on measurements, so that it is the same for all checks. It is meant for
+     * ordering criteria when they are added to a configuration. The array of a configuration must not
+     * be reordered, as checkers iterate it concurrently.
+     *
+     * @return
+     */
+    public static Comparator<SampleBasedCriterion> getComparator() {
+        return COMPARATOR;
+    }
+
+    /**
+     * Returns the declared cost of evaluating the given criterion in nanoseconds
+     *
+     * @param criterion
+     * @return
+     */
+    public static double getCost(SampleBasedCriterion criterion) {
+        return criterion instanceof RiskBasedCriterion ? ((RiskBasedCriterion) criterion).getDeclaredCost() : COST_COUNTING;
+    }
+
+    /**
+     * Returns the statistics for the given class of criteria
+     *
+     * @param clazz
+     * @return
+     */
+    public static synchronized CriterionStatistics get(Class<?> clazz) {
+        CriterionStatistics statistics = STATISTICS.get(clazz);
+        if (statistics == null) {
+            statistics = new CriterionStatistics(clazz.getSimpleName());
+            STATISTICS.put(clazz, statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns statistics for all criteria that have been evaluated so far
+     *
+     * @return
+     */
+    public static synchronized List<CriterionStatistics> getAll() {
+        return new ArrayList<CriterionStatistics>(STATISTICS.values());
+    }
+
+    /**
+     * Resets all counters
+     */
+    public static synchronized void reset() {
+        STATISTICS.clear();
+    }
+
+    /** Name of the criterion */
+    private final String     name;
+    /** Number of calls to enforce */
+    private final AtomicLong enforcements   = new AtomicLong();
+    /** Number of evaluations of the criterion */
+    private final AtomicLong evaluations    = new AtomicLong();
+    /** Number of enforcements decided by cheap checks only */
+    private final AtomicLong shortCircuits  = new AtomicLong();
+    /** Number of enforcements in which the evaluation budget has been exceeded */
+    private final AtomicLong budgetExceeded = new AtomicLong();
+    /** Time spent evaluating the criterion */
+    private final AtomicLong time           = new AtomicLong();
+
+    /**
+     * Creates a new instance
+     *
+     * @param name
+     */
+    private CriterionStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the average time per evaluation in nanoseconds
+     *
+     * @return
+     */
+    public double getAverageEvaluationTime() {
+        long evaluations = this.evaluations.get();
+        return evaluations == 0 ? 0d : (double) time.get() / (double) evaluations;
+    }
+
+    /**
+     * Returns the number of enforcements in which the evaluation budget has been exceeded
+     *
+     * @return
+     */
+    public long getNumBudgetExceeded() {
+        return budgetExceeded.get();
+    }
+
+    /**
+     * Returns the name of the criterion
+     *
+     * @return
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of calls to enforce
+     *
+     * @return
+     */
+    public long getNumEnforcements() {
+        return enforcements.get();
+    }
+
+    /**
+     * Returns the number of evaluations
+     *
+     * @return
+     */
+    public long getNumEvaluations() {
+        return evaluations.get();
+    }
+
+    /**
+     * Returns the number of enforcements that have been decided without evaluating the criterion
+     *
+     * @return
+     */
+    public long getNumShortCircuits() {
+        return shortCircuits.get();
+    }
+
+    /**
+     * Returns the overall evaluation time in nanoseconds
+     *
+     * @return
+     */
+    public long getTime() {
+        return time.get();
+    }
+
+    @Override
+    public String toString() {
+        return name + " [enforcements=" + enforcements.get() + ", evaluations=" + evaluations.get() +
+               ", short-circuits=" + shortCircuits.get() + ", budget-exceeded=" + budgetExceeded.get() + ", time=" + (time.get() / 1000000L) + "[ms]" +
+               ", average=" + (getAverageEvaluationTime() / 1000000d) + "[ms]]";
+    }
+
+    /**
+     * Registers an enforcement in which the evaluation budget has been exceeded
+     */
+    void addBudgetExceeded() {
+        budgetExceeded.incrementAndGet();
+    }
+
+    /**
+     * Registers a call to enforce
+     */
+    void addEnforcement() {
+        enforcements.incrementAndGet();
+    }
+
+    /**
+     * Registers an evaluation
+     *
+     * @param time
+     */
+    void addEvaluation(long time) {
+        this.evaluations.incrementAndGet();
+        this.time.addAndGet(time);
+    }
+
+    /**
+     * Registers an enforcement that has been decided by cheap checks only
+     */
+    void addShortCircuit() {
+        shortCircuits.incrementAndGet();
+    }
+}
@@ -20,6 +20,8 @@ package org.deidentifier.arx.criteria;
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.framework.check.groupify.HashGroupifyDistribution;
 import org.deidentifier.arx.framework.check.groupify.HashGroupifyDistribution.PrivacyCondition;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifySuppressionIndex;
+import org.deidentifier.arx.risk.RiskModelHistogram;
 
 /**
  * Abstract class for criteria that ensure that a certain risk measure is lower than or equal to a given threshold
@@ -28,12 +30,49 @@ import org.deidentifier.arx.framework.check.groupify.HashGroupifyDistribution.Pr
  */
 public abstract class RiskBasedCriterion extends SampleBasedCriterion{
 
+    /**
+     * Budget for the evaluations performed while enforcing the criterion on a single transformation
+     * 
+     * @author Fabian Prasser
+     */
+    private static class Budget {
+
+        /** Start */
+        private final long start     = System.nanoTime();
+        /** Remaining evaluations */
+        private int        remaining = MAX_EVALUATIONS;
+        /** Whether the budget has been exceeded */
+        private boolean    exceeded  = false;
+
+        /**
+         * Returns whether another evaluation may be performed
+         * @return
+         */
+        boolean acquire() {
+            if (!exceeded) {
+                exceeded = remaining-- <= 0 ||
+                           (MAX_EVALUATION_TIME != Long.MAX_VALUE && (System.nanoTime() - start) / 1000000L > MAX_EVALUATION_TIME);
+            }
+            return !exceeded;
+        }
+    }
+
     public static boolean USE_BINARY_SEARCH = true;
+
+    public static boolean USE_SUPPRESSION_INDEX = true;
+
+    /** Maximal time in milliseconds spent on evaluations while enforcing the criterion on one transformation */
+    public static long    MAX_EVALUATION_TIME   = Long.MAX_VALUE;
+
+    /** Maximal number of evaluations while enforcing the criterion on one transformation */
+    public static int     MAX_EVALUATIONS       = Integer.MAX_VALUE;
     
     /** SVUID */
     private static final long serialVersionUID = -2711630526630937284L;
     /** The threshold */
     private final double    threshold;
+    /** Timing counters */
+    private transient CriterionStatistics statistics;
 
     /**
      * Creates a new instance of this criterion.
@@ -56,8 +95,134 @@ public abstract class RiskBasedCriterion extends SampleBasedCriterion{
     public void enforce(final HashGroupifyDistribution distribution,
                         final int numMaxSuppressedOutliers) {
         
+        // Count
+        getStatistics().addEnforcement();
+        
+        // Cheap check: if the suppression limit has already been exceeded, there is no need to solve the model
+        if (distribution.getNumSuppressedRecords() > numMaxSuppressedOutliers) {
+            getStatistics().addShortCircuit();
+            return;
+        }
+        
+        // Enforce within budget
+        final Budget budget = new Budget();
+        enforce(distribution, numMaxSuppressedOutliers, budget);
+        if (budget.exceeded) {
+            getStatistics().addBudgetExceeded();
+        }
+    }
+    
+    /**
+     * Returns the smallest number of classes which must be suppressed in the order of the given index
+     * so that the criterion is fulfilled, while suppressing at most the given number of records. If this
+     * is not possible, the number of classes which violates the limit is returned. This is the search
+     * performed by enforce(), without applying its result to a distribution. Requires a criterion
+     * which can be decided on a histogram.
+     *
+     * @param index
+     * @param numMaxSuppressedRecords
+     * @return
+     */
+    public int getCut(HashGroupifySuppressionIndex index, long numMaxSuppressedRecords) {
+        if (!isHistogramBased()) {
+            throw new UnsupportedOperationException("Criterion can not be decided on a histogram");
+        }
+        final Budget budget = new Budget();
+        if (evaluate(index.getHistogram(0), budget)) {
+            return 0;
+        }
+        int cut = getCut(index, index.getMaxCut(numMaxSuppressedRecords), budget);
+        if (budget.exceeded) {
+            getStatistics().addBudgetExceeded();
+        }
+        return cut;
+    }
+
+    @Override
+    public int getRequirements(){
+        // Requires only one counter
+        return ARXConfiguration.REQUIREMENT_COUNTER;
+    }
+
+    /**
+     * Returns the declared cost of evaluating this criterion in nanoseconds, which is used
+     * for ordering criteria
+     *
+     * @return
+     */
+    public double getDeclaredCost() {
+        return CriterionStatistics.COST_MODEL;
+    }
+    
+    /**
+     * Returns the timing counters for this class of criteria
+     *
+     * @return
+     */
+    public CriterionStatistics getStatistics() {
+        if (statistics == null) {
+            statistics = CriterionStatistics.get(getClass());
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the risk threshold
+     *
+     * @return
+     */
+    public double getRiskThreshold() {
+        return threshold;
+    }
+
+    /**
+     * To be implemented by risk-based criteria
+     * @param distribution
+     * @return
+     */
+    protected abstract boolean isFulfilled(HashGroupifyDistribution distribution);
+
+    /**
+     * May be implemented by risk-based criteria which can be decided on a histogram of class sizes.
+     * Must be consistent with isFulfilled(HashGroupifyDistribution). The criteria of the ARX library
+     * do not implement this and are enforced on the distribution.
+     * @param histogram
+     * @return
+     */
+    protected boolean isFulfilled(RiskModelHistogram histogram) {
+        throw new UnsupportedOperationException("Criterion can not be decided on a histogram");
+    }
+
+    /**
+     * Returns whether this criterion implements isFulfilled(RiskModelHistogram). Only such criteria
+     * are enforced with a suppression index.
+     * @return
+     */
+    protected boolean isHistogramBased() {
+        return false;
+    }
+
+    /**
+     * Enforces the criterion. Once the budget is exceeded, all further evaluations report the criterion
+     * as not fulfilled. As a consequence, the result is either a cut which has been proven to fulfill the
+     * criterion, or the suppression limit is violated.
+     * 
+     * @param distribution
+     * @param numMaxSuppressedOutliers
+     * @param budget
+     */
+    private void enforce(final HashGroupifyDistribution distribution,
+                         final int numMaxSuppressedOutliers,
+                         final Budget budget) {
+        
         // Early abort
-        if (RiskBasedCriterion.this.isFulfilled(distribution)) {
+        if (evaluate(distribution, budget)) {
+            return;
+        }
+        
+        // Search on the index, if the criterion can be decided on a histogram
+        if (USE_SUPPRESSION_INDEX && isHistogramBased()) {
+            enforce(distribution, new HashGroupifySuppressionIndex(distribution), numMaxSuppressedOutliers, budget);
             return;
         }
        
@@ -65,7 +230,7 @@ public abstract class RiskBasedCriterion extends SampleBasedCriterion{
         if (USE_BINARY_SEARCH) {
             distribution.suppressWhileNotFulfilledBinary(new PrivacyCondition(){
                 public State isFulfilled(HashGroupifyDistribution distribution) {
-                    boolean fulfilled = RiskBasedCriterion.this.isFulfilled(distribution);
+                    boolean fulfilled = evaluate(distribution, budget);
                     
                     // Early abort
                     if (!fulfilled && distribution.getNumSuppressedRecords() > numMaxSuppressedOutliers) {
@@ -80,7 +245,7 @@ public abstract class RiskBasedCriterion extends SampleBasedCriterion{
         } else {
             distribution.suppressWhileNotFulfilledLinear(new PrivacyCondition(){
                 public State isFulfilled(HashGroupifyDistribution distribution) {
-                    boolean fulfilled = RiskBasedCriterion.this.isFulfilled(distribution);
+                    boolean fulfilled = evaluate(distribution, budget);
                     
                     // Early abort
                     if (!fulfilled && distribution.getNumSuppressedRecords() > numMaxSuppressedOutliers) {
@@ -95,25 +260,105 @@ public abstract class RiskBasedCriterion extends SampleBasedCriterion{
         }
     }
     
-    @Override
-    public int getRequirements(){
-        // Requires only one counter
-        return ARXConfiguration.REQUIREMENT_COUNTER;
+    /**
+     * Evaluates the criterion and tracks the time needed
+     * @param distribution
+     * @param budget
+     * @return
+     */
+    private boolean evaluate(HashGroupifyDistribution distribution, Budget budget) {
+        if (!budget.acquire()) {
+            return false;
+        }
+        long time = System.nanoTime();
+        boolean result = isFulfilled(distribution);
+        getStatistics().addEvaluation(System.nanoTime() - time);
+        return result;
     }
 
     /**
-     * Returns the risk threshold
-     *
+     * Evaluates the criterion and tracks the time needed
+     * @param histogram
+     * @param budget
      * @return
      */
-    public double getRiskThreshold() {
-        return threshold;
+    private boolean evaluate(RiskModelHistogram histogram, Budget budget) {
+        if (!budget.acquire()) {
+            return false;
+        }
+        long time = System.nanoTime();
+        boolean result = isFulfilled(histogram);
+        getStatistics().addEvaluation(System.nanoTime() - time);
+        return result;
     }
 
     /**
-     * To be implemented by risk-based criteria
+     * Searches for the smallest number of suppressed classes on the index and applies the
+     * result to the distribution afterwards. The risk model is only evaluated on histograms
+     * derived from the index.
+     *
      * @param distribution
+     * @param index
+     * @param numMaxSuppressedOutliers
+     * @param budget
+     */
+    private void enforce(HashGroupifyDistribution distribution,
+                         HashGroupifySuppressionIndex index,
+                         int numMaxSuppressedOutliers,
+                         Budget budget) {
+
+        // Search for the cut, respecting the suppression limit
+        final long numSuppressed = distribution.getNumSuppressedRecords();
+        final int cut = getCut(index, index.getMaxCut((long) numMaxSuppressedOutliers - numSuppressed), budget);
+
+        // Apply. Suppression proceeds in the order of the index, so this does not evaluate the risk model.
+        final long target = numSuppressed + index.getNumSuppressedRecords(cut);
+        distribution.suppressWhileNotFulfilledBinary(new PrivacyCondition(){
+            public State isFulfilled(HashGroupifyDistribution distribution) {
+                return distribution.getNumSuppressedRecords() >= target ? State.FULFILLED : State.NOT_FULFILLED;
+            }
+        });
+    }
+
+    /**
+     * Searches for the smallest cut point on the index which fulfills the criterion. The cut point
+     * zero is known not to fulfill it. If no cut point up to the given one does, the next cut point
+     * is returned, which violates the suppression limit.
+     *
+     * @param index
+     * @param maxCut
+     * @param budget
      * @return
      */
-    protected abstract boolean isFulfilled(HashGroupifyDistribution distribution);
-}
\ No newline at end of file
+    private int getCut(HashGroupifySuppressionIndex index, int maxCut, Budget budget) {
+
+        int low = 1;
+        int high = maxCut;
+        int cut = -1;
+
+        // Binary search for the smallest cut which fulfills the criterion
+        if (USE_BINARY_SEARCH) {
+            while (low <= high && !budget.exceeded) {
+                int mid = (low + high) >>> 1;
+                if (evaluate(index.getHistogram(mid), budget)) {
+                    cut = mid;
+                    high = mid - 1;
+                } else {
+                    low = mid + 1;
+                }
+            }
+        } else {
+            for (int k = low; k <= high && cut == -1 && !budget.exceeded; k++) {
+                if (evaluate(index.getHistogram(k), budget)) {
+                    cut = k;
+                }
+            }
+        }
+
+        // Not possible within the limit: suppress one more class to violate it, as the non-indexed search does
+        if (cut == -1) {
+            cut = Math.min(maxCut + 1, index.getNumClasses());
+        }
+        return cut;
+    }
+}
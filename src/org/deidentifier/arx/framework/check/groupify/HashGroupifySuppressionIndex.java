@@ -0,0 +1,231 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.groupify;
+
+import java.util.Arrays;
+
+import org.deidentifier.arx.risk.RiskModelHistogram;
+
+import com.carrotsearch.hppc.IntIntOpenHashMap;
+
+/**
+ * An index over the equivalence classes of a distribution, ordered by size, which supports
+ * answering queries about the state resulting from suppressing the k smallest classes.
+ * Suppression in HashGroupifyDistribution proceeds in exactly this order. The index is built
+ * once per transformation, probes do not touch the hash table or mutate the distribution.
+ *
+ * @author Fabian Prasser
+ */
+public class HashGroupifySuppressionIndex {
+
+    /** Distinct class sizes, ascending */
+    private final int[]  sizes;
+    /** Number of classes per size */
+    private final int[]  counts;
+    /** Number of classes with a size smaller than sizes[i] */
+    private final int[]  prefixClasses;
+    /** Number of records in classes with a size smaller than sizes[i] */
+    private final long[] prefixRecords;
+    /** Total number of classes */
+    private final int    numClasses;
+    /** Total number of records */
+    private final long   numRecords;
+
+    /**
+     * Creates a new index for the current state of the given distribution
+     *
+     * @param distribution
+     */
+    public HashGroupifySuppressionIndex(HashGroupifyDistribution distribution) {
+        this(distribution.getHistogram());
+    }
+
+    /**
+     * Creates a new index for the given histogram of class sizes
+     *
+     * @param histogram
+     */
+    public HashGroupifySuppressionIndex(RiskModelHistogram histogram) {
+        this(histogram.getHistogram());
+    }
+
+    /**
+     * Creates a new index from a histogram of the form [size, count, size, count, ...]
+     *
+     * @param histogram
+     */
+    HashGroupifySuppressionIndex(int[] histogram) {
+
+        // Sort by size. Sizes and counts are positive, so they can be packed into a long
+        long[] packed = new long[histogram.length / 2];
+        for (int i = 0; i < histogram.length; i += 2) {
+            packed[i / 2] = ((long) histogram[i] << 32) | (histogram[i + 1] & 0xffffffffL);
+        }
+        Arrays.sort(packed);
+
+        // Compute prefix sums
+        this.sizes = new int[packed.length];
+        this.counts = new int[packed.length];
+        this.prefixClasses = new int[packed.length + 1];
+        this.prefixRecords = new long[packed.length + 1];
+        for (int i = 0; i < packed.length; i++) {
+            sizes[i] = (int) (packed[i] >>> 32);
+            counts[i] = (int) packed[i];
+            prefixClasses[i + 1] = prefixClasses[i] + counts[i];
+            prefixRecords[i + 1] = prefixRecords[i] + (long) sizes[i] * (long) counts[i];
+        }
+        this.numClasses = prefixClasses[packed.length];
+        this.numRecords = prefixRecords[packed.length];
+    }
+
+    /**
+     * Returns the histogram resulting from suppressing the k smallest classes, as needed by risk models.
+     * Runs in O(#distinct class sizes).
+     *
+     * @param k
+     * @return
+     */
+    public RiskModelHistogram getHistogram(int k) {
+        int bucket = getBucket(k);
+        IntIntOpenHashMap histogram = new IntIntOpenHashMap();
+        for (int i = bucket; i < sizes.length; i++) {
+            int count = getNumClassesOfSizeIndex(i, k, bucket);
+            if (count > 0) {
+                histogram.put(sizes[i], count);
+            }
+        }
+        return new RiskModelHistogram(histogram);
+    }
+
+    /**
+     * Returns the largest cut point which suppresses at most the given number of records
+     *
+     * @param records
+     * @return
+     */
+    public int getMaxCut(long records) {
+        int low = 0;
+        int high = numClasses;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (getNumSuppressedRecords(mid) <= records) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of remaining classes after suppressing the k smallest classes
+     *
+     * @param k
+     * @return
+     */
+    public int getNumClasses(int k) {
+        return numClasses - k;
+    }
+
+    /**
+     * Returns the number of remaining classes of the given size after suppressing the k smallest classes.
+     * Calling this with sizes one and two yields the parameters c1 and c2 of the population models.
+     *
+     * @param size
+     * @param k
+     * @return
+     */
+    public int getNumClassesOfSize(int size, int k) {
+        int index = Arrays.binarySearch(sizes, size);
+        return index < 0 ? 0 : getNumClassesOfSizeIndex(index, k, getBucket(k));
+    }
+
+    /**
+     * Returns the number of remaining records after suppressing the k smallest classes
+     *
+     * @param k
+     * @return
+     */
+    public long getNumRecords(int k) {
+        return numRecords - getNumSuppressedRecords(k);
+    }
+
+    /**
+     * Returns the number of records suppressed when suppressing the k smallest classes
+     *
+     * @param k
+     * @return
+     */
+    public long getNumSuppressedRecords(int k) {
+        int bucket = getBucket(k);
+        if (bucket == sizes.length) {
+            return numRecords;
+        }
+        return prefixRecords[bucket] + (long) (k - prefixClasses[bucket]) * (long) sizes[bucket];
+    }
+
+    /**
+     * Returns the total number of classes, which is also the largest cut point
+     *
+     * @return
+     */
+    public int getNumClasses() {
+        return numClasses;
+    }
+
+    /**
+     * Returns the index of the bucket which contains the (k+1)-th smallest class
+     *
+     * @param k
+     * @return
+     */
+    private int getBucket(int k) {
+        if (k < 0 || k > numClasses) {
+            throw new IllegalArgumentException("Cut point out of range: " + k);
+        }
+        int low = 0;
+        int high = sizes.length;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (prefixClasses[mid] <= k) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of remaining classes in the given bucket
+     *
+     * @param index
+     * @param k
+     * @param bucket
+     * @return
+     */
+    private int getNumClassesOfSizeIndex(int index, int k, int bucket) {
+        if (index < bucket) {
+            return 0;
+        } else if (index == bucket) {
+            return counts[index] - (k - prefixClasses[index]);
+        } else {
+            return counts[index];
+        }
+    }
+}
@@ -44,6 +44,19 @@ public class ModelPitman extends RiskModelPopulation {
     /** The result */
     private final double numUniques;
 
+    /**
+     * Creates a new instance which can not be interrupted, e.g. for benchmarking the solver
+     * 
+     * @param model
+     * @param histogram
+     * @param config
+     */
+    public ModelPitman(final ARXPopulationModel model,
+                       final RiskModelHistogram histogram,
+                       final NewtonRaphsonConfiguration<?> config) {
+        this(model, histogram, config, new WrappedBoolean());
+    }
+
     /**
      * Creates a new instance
      * 
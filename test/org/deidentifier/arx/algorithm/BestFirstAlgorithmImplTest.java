@@ -0,0 +1,142 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.metric.InformationLoss;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.metric.Metric.AggregateFunction;
+import org.junit.Test;
+
+/**
+ * Tests BestFirstAlgorithmImpl against FLASH on small synthetic datasets
+ *
+ * @author Fabian Prasser
+ */
+public class BestFirstAlgorithmImplTest {
+
+    /** Attributes */
+    private static final String[] ATTRIBUTES = new String[] { "age", "sex", "zip" };
+
+    /** Number of distinct values per attribute */
+    private static final int[]    VALUES     = new int[] { 16, 2, 8 };
+
+    /**
+     * Returns a random dataset with generalization hierarchies
+     *
+     * @param random
+     * @param rows
+     * @return
+     */
+    private static Data getData(Random random, int rows) {
+        List<String[]> list = new ArrayList<String[]>();
+        list.add(ATTRIBUTES);
+        for (int row = 0; row < rows; row++) {
+            String[] values = new String[ATTRIBUTES.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = String.valueOf(random.nextInt(VALUES[i]));
+            }
+            list.add(values);
+        }
+        Data data = Data.create(list);
+        for (int i = 0; i < ATTRIBUTES.length; i++) {
+            data.getDefinition().setAttributeType(ATTRIBUTES[i], getHierarchy(VALUES[i]));
+        }
+        return data;
+    }
+
+    /**
+     * Returns a hierarchy which halves the number of distinct values per level
+     *
+     * @param values
+     * @return
+     */
+    private static Hierarchy getHierarchy(int values) {
+        int levels = Integer.numberOfTrailingZeros(values) + 1;
+        String[][] hierarchy = new String[values][levels];
+        for (int value = 0; value < values; value++) {
+            for (int level = 0; level < levels - 1; level++) {
+                int width = 1 << level;
+                int from = value / width * width;
+                hierarchy[value][level] = width == 1 ? String.valueOf(value) : "[" + from + ", " + (from + width) + "[";
+            }
+            hierarchy[value][levels - 1] = "*";
+        }
+        return Hierarchy.create(hierarchy);
+    }
+
+    /**
+     * Returns the information loss of the optimum found with the given algorithm, or null
+     *
+     * @param data
+     * @param k
+     * @param outliers
+     * @param factory
+     * @return
+     * @throws IOException
+     */
+    private static InformationLoss<?> getOptimum(Data data, int k, double outliers, FLASHAlgorithmImpl.AlgorithmFactory factory) throws IOException {
+        ARXConfiguration config = ARXConfiguration.create();
+        config.setMetric(Metric.createPrecomputedLossMetric(1.0d, 0.5d, AggregateFunction.GEOMETRIC_MEAN));
+        config.setMaxOutliers(outliers);
+        config.addCriterion(new KAnonymity(k));
+        FLASHAlgorithmImpl.AlgorithmFactory previous = FLASHAlgorithmImpl.ALGORITHM_FACTORY;
+        FLASHAlgorithmImpl.ALGORITHM_FACTORY = factory;
+        try {
+            data.getHandle().release();
+            ARXResult result = new ARXAnonymizer().anonymize(data, config);
+            ARXNode optimum = result.getGlobalOptimum();
+            return optimum != null ? optimum.getMaximumInformationLoss() : null;
+        } finally {
+            FLASHAlgorithmImpl.ALGORITHM_FACTORY = previous;
+        }
+    }
+
+    @Test
+    public void testOptimum() throws IOException {
+        Random random = new Random(0);
+        for (int run = 0; run < 10; run++) {
+            Data data = getData(random, 50 + random.nextInt(100));
+            for (int k : new int[] { 2, 5 }) {
+                for (double outliers : new double[] { 0d, 0.05d }) {
+                    InformationLoss<?> expected = getOptimum(data, k, outliers, null);
+                    InformationLoss<?> actual = getOptimum(data, k, outliers, BestFirstAlgorithmImpl.FACTORY);
+
+                    // The top is k-anonymous, as it consists of a single class
+                    assertNotNull(expected);
+                    assertNotNull(actual);
+                    assertEquals(0, expected.compareTo(actual));
+                }
+            }
+        }
+    }
+}
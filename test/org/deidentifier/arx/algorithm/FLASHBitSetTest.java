@@ -0,0 +1,88 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests FLASHBitSet against java.util.BitSet
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHBitSetTest {
+
+    /** Bytes per page */
+    private static final long PAGE_BYTES = (1L << 15) / 8L;
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(0xdeadbeef);
+        int size = 1000000;
+        FLASHBitSet set = new FLASHBitSet(size);
+        BitSet expected = new BitSet(size);
+        for (int i = 0; i < 10000; i++) {
+            int id = random.nextInt(size);
+            set.set(id);
+            expected.set(id);
+        }
+        for (int id = 0; id < size; id++) {
+            assertEquals(expected.get(id), set.get(id));
+        }
+    }
+
+    @Test
+    public void testLazyPages() {
+        FLASHBitSet set = new FLASHBitSet(FLASHBitSet.MAX_SIZE);
+        assertEquals(0L, set.getBytes());
+        assertFalse(set.get(FLASHBitSet.MAX_SIZE - 1L));
+        assertEquals(0L, set.getBytes());
+
+        // Same page
+        set.set(0L);
+        set.set(63L);
+        set.set(64L);
+        assertEquals(PAGE_BYTES, set.getBytes());
+
+        // Last bit of the first and last page
+        set.set((1L << 15) - 1L);
+        assertEquals(PAGE_BYTES, set.getBytes());
+        set.set(FLASHBitSet.MAX_SIZE - 1L);
+        assertEquals(2L * PAGE_BYTES, set.getBytes());
+
+        assertTrue(set.get(0L));
+        assertTrue(set.get(63L));
+        assertTrue(set.get(64L));
+        assertFalse(set.get(65L));
+        assertTrue(set.get((1L << 15) - 1L));
+        assertFalse(set.get(1L << 15));
+        assertTrue(set.get(FLASHBitSet.MAX_SIZE - 1L));
+        assertFalse(set.get(FLASHBitSet.MAX_SIZE - 2L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLarge() {
+        new FLASHBitSet(FLASHBitSet.MAX_SIZE + 1L);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.deidentifier.arx.metric.InformationLoss;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests writing and reading FLASHCheckpoint
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHCheckpointTest {
+
+    /** Folder */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+
+        // Write
+        File file = new File(folder.getRoot(), "checkpoint");
+        FLASHCheckpoint.reset();
+        FLASHCheckpoint checkpoint = getCheckpoint("signature", 3);
+        checkpoint.write(file);
+        assertEquals(1L, FLASHCheckpoint.getNumWritten());
+        assertEquals(file.length(), FLASHCheckpoint.getNumBytesWritten());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        // Read
+        FLASHCheckpoint resumed = FLASHCheckpoint.read(file);
+        assertTrue(resumed.matches("signature"));
+        assertFalse(resumed.matches("other"));
+        assertEquals(checkpoint.level, resumed.level);
+        assertEquals(checkpoint.optimum, resumed.optimum);
+        assertEquals(checkpoint.checked, resumed.checked);
+        assertArrayEquals(checkpoint.queue, resumed.queue);
+        assertArrayEquals(checkpoint.ids, resumed.ids);
+        assertArrayEquals(checkpoint.properties, resumed.properties);
+        assertArrayEquals(checkpoint.candidates, resumed.candidates);
+        assertArrayEquals(checkpoint.candidateBounds, resumed.candidateBounds, 0d);
+        assertEquals(checkpoint.losses.length, resumed.losses.length);
+        assertEquals(checkpoint.bounds.length, resumed.bounds.length);
+    }
+
+    @Test
+    public void testReplace() throws IOException {
+        File file = new File(folder.getRoot(), "checkpoint");
+        FLASHCheckpoint.reset();
+        getCheckpoint("signature", 1).write(file);
+        getCheckpoint("signature", 2).write(file);
+        assertEquals(2L, FLASHCheckpoint.getNumWritten());
+        assertEquals(2, FLASHCheckpoint.read(file).level);
+    }
+
+    /**
+     * Returns a checkpoint at the given level
+     *
+     * @param signature
+     * @param level
+     * @return
+     */
+    private FLASHCheckpoint getCheckpoint(String signature, int level) {
+        FLASHCheckpoint checkpoint = new FLASHCheckpoint(signature);
+        checkpoint.level = level;
+        checkpoint.queue = new long[] { 7L, 3L, Long.MAX_VALUE };
+        checkpoint.ids = new long[] { 1L, 5L };
+        checkpoint.properties = new int[] { 0x1, 0x6 };
+        checkpoint.losses = new InformationLoss<?>[2];
+        checkpoint.bounds = new InformationLoss<?>[2];
+        checkpoint.optimum = 5L;
+        checkpoint.candidates = new long[] { 9L, 11L };
+        checkpoint.candidateBounds = new double[] { 0.5d, Double.NaN };
+        checkpoint.checked = 42L;
+        return checkpoint;
+    }
+}
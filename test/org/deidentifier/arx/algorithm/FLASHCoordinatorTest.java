@@ -0,0 +1,165 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Tests exchanging optima with FLASHCoordinator over the loopback interface
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHCoordinatorTest {
+
+    /** Maximal time to wait for a value in milliseconds */
+    private static final long TIMEOUT = 10000L;
+
+    /**
+     * Waits until the client has received the given value
+     *
+     * @param client
+     * @param value
+     * @throws InterruptedException
+     */
+    private static void await(FLASHCoordinator.Client client, double value) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (client.getOptimum() != value && System.currentTimeMillis() - start < TIMEOUT) {
+            Thread.sleep(1);
+        }
+        assertEquals(value, client.getOptimum(), 0d);
+    }
+
+    /**
+     * Waits until the coordinator has received the given number of values
+     *
+     * @param coordinator
+     * @param requests
+     * @throws InterruptedException
+     */
+    private static void await(FLASHCoordinator coordinator, long requests) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (coordinator.getNumRequests() < requests && System.currentTimeMillis() - start < TIMEOUT) {
+            Thread.sleep(1);
+        }
+        assertEquals(requests, coordinator.getNumRequests());
+    }
+
+    @Test
+    public void testDisconnect() throws IOException, InterruptedException {
+        FLASHCoordinator coordinator = new FLASHCoordinator(0);
+        try {
+            FLASHCoordinator.Client client1 = new FLASHCoordinator.Client(coordinator.getPort());
+            FLASHCoordinator.Client client2 = new FLASHCoordinator.Client(coordinator.getPort());
+
+            // Disconnected workers do not affect the others
+            client1.close();
+            client2.publish(2d);
+            await(coordinator, 1);
+            assertEquals(2d, coordinator.getOptimum(), 0d);
+            client2.close();
+        } finally {
+            coordinator.close();
+        }
+    }
+
+    @Test
+    public void testExchange() throws IOException, InterruptedException {
+        FLASHCoordinator coordinator = new FLASHCoordinator(0);
+        try {
+            FLASHCoordinator.Client client1 = new FLASHCoordinator.Client(coordinator.getPort());
+            FLASHCoordinator.Client client2 = new FLASHCoordinator.Client(coordinator.getPort());
+            assertTrue(Double.isNaN(client1.getOptimum()));
+
+            // Improvements are pushed to all workers
+            client1.publish(5d);
+            assertEquals(5d, client1.getOptimum(), 0d);
+            await(client2, 5d);
+
+            // Larger values are ignored
+            client2.publish(7d);
+            await(coordinator, 2);
+            assertEquals(5d, coordinator.getOptimum(), 0d);
+            assertEquals(5d, client2.getOptimum(), 0d);
+
+            // Improvements of other workers
+            client2.publish(3d);
+            await(client1, 3d);
+            assertEquals(3d, coordinator.getOptimum(), 0d);
+
+            // Workers which connect later receive the current optimum
+            FLASHCoordinator.Client client3 = new FLASHCoordinator.Client(coordinator.getPort());
+            await(client3, 3d);
+
+            client1.close();
+            client2.close();
+            client3.close();
+        } finally {
+            coordinator.close();
+        }
+    }
+
+    @Test
+    public void testConcurrent() throws IOException, InterruptedException {
+        final FLASHCoordinator coordinator = new FLASHCoordinator(0);
+        try {
+
+            // Workers publish decreasing values concurrently
+            final int workers = 4;
+            final int values = 200;
+            final FLASHCoordinator.Client[] clients = new FLASHCoordinator.Client[workers];
+            for (int i = 0; i < workers; i++) {
+                clients[i] = new FLASHCoordinator.Client(coordinator.getPort());
+            }
+            Thread[] threads = new Thread[workers];
+            for (int i = 0; i < workers; i++) {
+                final int worker = i;
+                threads[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int value = values; value > 0; value--) {
+                                clients[worker].publish(value * workers + worker);
+                            }
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // All workers end up with the minimum
+            await(coordinator, workers * values);
+            assertEquals(workers, coordinator.getOptimum(), 0d);
+            for (FLASHCoordinator.Client client : clients) {
+                await(client, workers);
+                client.close();
+            }
+        } finally {
+            coordinator.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests writing and reading FLASHEventLog
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHEventLogTest {
+
+    /** Folder */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEmpty() throws IOException {
+        File file = folder.newFile();
+        new FLASHEventLog(file).close();
+        FLASHEventLog.Reader reader = new FLASHEventLog.Reader(file);
+        assertFalse(reader.next(new FLASHEventLog.Event()));
+        reader.close();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+
+        // Small ring, so that buffers are reused
+        int records = FLASHEventLog.BUFFER_RECORDS;
+        int buffers = FLASHEventLog.BUFFERS;
+        File file = folder.newFile();
+        int size = 1000;
+        long[] ids = new long[size];
+        int[] levels = new int[size];
+        int[] queues = new int[size];
+        long[] durations = new long[size];
+        try {
+            FLASHEventLog.BUFFER_RECORDS = 7;
+            FLASHEventLog.BUFFERS = 2;
+            Random random = new Random(0xdeadbeef);
+            FLASHEventLog log = new FLASHEventLog(file);
+            for (int i = 0; i < size; i++) {
+                ids[i] = random.nextLong() & Long.MAX_VALUE;
+                levels[i] = random.nextInt(100);
+                queues[i] = random.nextInt();
+                durations[i] = random.nextInt(Integer.MAX_VALUE);
+                log.append(ids[i], levels[i], queues[i], (byte) (i % 2), (byte) (i % 3), (byte) (i % 3), durations[i]);
+            }
+            log.close();
+        } finally {
+            FLASHEventLog.BUFFER_RECORDS = records;
+            FLASHEventLog.BUFFERS = buffers;
+        }
+
+        // Read
+        FLASHEventLog.Reader reader = new FLASHEventLog.Reader(file);
+        FLASHEventLog.Event event = new FLASHEventLog.Event();
+        long time = 0L;
+        for (int i = 0; i < size; i++) {
+            assertTrue(reader.next(event));
+            assertEquals(ids[i], event.id);
+            assertEquals(levels[i], event.level);
+            assertEquals(queues[i], event.queue);
+            assertEquals(durations[i], event.duration);
+            assertEquals(i % 2, event.phase);
+            assertEquals(i % 3, event.action);
+            assertEquals(i % 3, event.outcome);
+            assertTrue(event.time >= time);
+            time = event.time;
+        }
+        assertFalse(reader.next(event));
+        reader.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidHeader() throws IOException {
+        File file = folder.newFile();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[12]);
+        out.close();
+        new FLASHEventLog.Reader(file);
+    }
+}
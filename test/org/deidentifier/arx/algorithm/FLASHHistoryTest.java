@@ -0,0 +1,120 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the estimate and the decisions of FLASHHistory
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHHistoryTest {
+
+    /** The solution space */
+    private SolutionSpace solutionSpace;
+
+    /** The budget before the test */
+    private long          budget;
+
+    /**
+     * Returns the transformation with the given generalization
+     *
+     * @param generalization
+     * @return
+     */
+    private Transformation get(int... generalization) {
+        return solutionSpace.getTransformation(generalization);
+    }
+
+    @Before
+    public void before() {
+        solutionSpace = new SolutionSpace(new int[] { 0, 0 }, new int[] { 3, 3 });
+        budget = FLASHHistory.BUDGET;
+        FLASHHistory.reset();
+    }
+
+    @After
+    public void after() {
+        FLASHHistory.BUDGET = budget;
+    }
+
+    @Test
+    public void testDeadBytes() {
+        FLASHHistory.BUDGET = 150L;
+        FLASHHistory history = new FLASHHistory(null, solutionSpace, true);
+        Transformation first = get(0, 1);
+        Transformation second = get(1, 1);
+        assertEquals(FLASHHistory.KEEP, history.update(first, 100L, 1));
+        first.setProperty(solutionSpace.getPropertySuccessorsPruned());
+
+        // Half of the bytes are held by snapshots whose successors are pruned
+        assertEquals(FLASHHistory.RESET, history.update(second, 100L, 2));
+        assertEquals(0L, history.getBytes());
+        assertEquals(2L, FLASHHistory.getNumEvicted());
+    }
+
+    @Test
+    public void testDowngradeAndReset() {
+        FLASHHistory.BUDGET = 150L;
+        FLASHHistory history = new FLASHHistory(null, solutionSpace, false);
+        assertEquals(FLASHHistory.KEEP, history.update(get(0, 1), 100L, 1));
+
+        // Exceeding the budget excludes anonymous transformations first
+        assertEquals(FLASHHistory.DOWNGRADE, history.update(get(1, 1), 100L, 2));
+        assertEquals(200L, history.getBytes());
+
+        // Resets only when the traversal leaves the path
+        assertEquals(FLASHHistory.KEEP, history.update(get(2, 1), -1L, 2));
+        assertEquals(FLASHHistory.RESET, history.update(get(1, 0), -1L, 2));
+        assertEquals(0L, history.getBytes());
+        assertEquals(1L, FLASHHistory.getNumEvictions());
+        assertEquals(200L, FLASHHistory.getPeakBytes());
+
+        // The estimate starts from scratch
+        assertEquals(FLASHHistory.KEEP, history.update(get(2, 0), 100L, 1));
+        assertEquals(100L, history.getBytes());
+    }
+
+    @Test
+    public void testShrink() {
+        FLASHHistory history = new FLASHHistory(null, solutionSpace, false);
+        Transformation first = get(0, 1);
+        Transformation second = get(1, 1);
+        Transformation third = get(2, 1);
+        history.update(first, 100L, 1);
+        history.update(second, 200L, 2);
+        history.update(third, 400L, 3);
+        assertEquals(700L, history.getBytes());
+
+        // Snapshots whose successors are pruned are assumed to be removed first
+        second.setProperty(solutionSpace.getPropertySuccessorsPruned());
+        history.update(get(3, 1), -1L, 2);
+        assertEquals(500L, history.getBytes());
+
+        // Then the oldest ones
+        history.update(get(3, 2), -1L, 1);
+        assertEquals(400L, history.getBytes());
+    }
+}
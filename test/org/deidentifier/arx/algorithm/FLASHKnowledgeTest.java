@@ -0,0 +1,96 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests writing and reading FLASHKnowledge
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHKnowledgeTest {
+
+    /** Folder */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCounters() {
+        FLASHKnowledge.reset();
+        FLASHKnowledge.addSeeded(true);
+        FLASHKnowledge.addSeeded(false);
+        assertEquals(2L, FLASHKnowledge.getNumSeeded());
+        assertEquals(1L, FLASHKnowledge.getNumConfirmed());
+        FLASHKnowledge.reset();
+        assertEquals(0L, FLASHKnowledge.getNumSeeded());
+    }
+
+    @Test
+    public void testMissing() throws IOException {
+        assertNull(FLASHKnowledge.read(folder.getRoot(), "signature"));
+    }
+
+    @Test
+    public void testReplace() throws IOException {
+        File directory = folder.getRoot();
+        new FLASHKnowledge("signature", new long[] { 1L }, new long[0], 1L).write(directory);
+        new FLASHKnowledge("signature", new long[] { 2L }, new long[0], 2L).write(directory);
+        assertEquals(1, directory.listFiles().length);
+        assertEquals(2L, FLASHKnowledge.read(directory, "signature").optimum);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+
+        // Write to a directory which does not exist yet
+        File directory = new File(folder.getRoot(), "knowledge");
+        FLASHKnowledge knowledge = new FLASHKnowledge("signature", new long[] { 3L, 5L }, new long[] { 1L, 4294967296L }, 5L);
+        knowledge.write(directory);
+        assertEquals(1, directory.listFiles().length);
+
+        // Read
+        FLASHKnowledge read = FLASHKnowledge.read(directory, "signature");
+        assertEquals(knowledge.signature, read.signature);
+        assertArrayEquals(knowledge.anonymous, read.anonymous);
+        assertArrayEquals(knowledge.notAnonymous, read.notAnonymous);
+        assertEquals(knowledge.optimum, read.optimum);
+    }
+
+    @Test
+    public void testSignatures() throws IOException {
+
+        // Knowledge is stored per signature
+        File directory = folder.getRoot();
+        new FLASHKnowledge("signature", new long[0], new long[0], 1L).write(directory);
+        new FLASHKnowledge("other", new long[0], new long[0], -1L).write(directory);
+        assertEquals(2, directory.listFiles().length);
+        assertEquals(1L, FLASHKnowledge.read(directory, "signature").optimum);
+        assertEquals(-1L, FLASHKnowledge.read(directory, "other").optimum);
+        assertNull(FLASHKnowledge.read(directory, "unknown"));
+    }
+}
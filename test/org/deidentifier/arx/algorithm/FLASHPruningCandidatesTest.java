@@ -0,0 +1,148 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests FLASHPruningCandidates against a list of candidates
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHPruningCandidatesTest {
+
+    /**
+     * Returns the index of the element with the largest or smallest bound
+     *
+     * @param bounds
+     * @param largest
+     * @return
+     */
+    private static int getIndex(List<Double> bounds, boolean largest) {
+        int result = 0;
+        for (int i = 1; i < bounds.size(); i++) {
+            if (largest ? bounds.get(i) > bounds.get(result) : bounds.get(i) < bounds.get(result)) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testMinimum() {
+        FLASHPruningCandidates candidates = new FLASHPruningCandidates();
+        candidates.add(0, 3d);
+        candidates.add(1, 1d);
+        candidates.add(2, 2d);
+        assertEquals(1d, candidates.getMinimalBound(), 0d);
+        assertEquals(1, candidates.getMinimalIdentifier());
+        assertEquals(0, candidates.poll());
+        assertEquals(2, candidates.poll());
+        assertEquals(1d, candidates.getMinimalBound(), 0d);
+        assertEquals(1, candidates.poll());
+        assertEquals(-1, candidates.getMinimalIdentifier());
+        assertTrue(Double.isNaN(candidates.getMinimalBound()));
+    }
+
+    @Test
+    public void testDuplicates() {
+
+        // The same identifier with two bounds
+        FLASHPruningCandidates candidates = new FLASHPruningCandidates();
+        candidates.add(0, 1d);
+        candidates.add(1, 2d);
+        candidates.add(0, 3d);
+        assertEquals(0, candidates.poll());
+        assertEquals(0, candidates.getMinimalIdentifier());
+        assertEquals(1d, candidates.getMinimalBound(), 0d);
+        assertEquals(1, candidates.poll());
+        assertEquals(0, candidates.getMinimalIdentifier());
+        assertEquals(1d, candidates.getMinimalBound(), 0d);
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(0);
+        for (int run = 0; run < 100; run++) {
+            FLASHPruningCandidates candidates = new FLASHPruningCandidates();
+            List<Long> ids = new ArrayList<Long>();
+            List<Double> bounds = new ArrayList<Double>();
+            for (int i = 0; i < 500; i++) {
+
+                // Add, with few distinct identifiers and bounds
+                if (bounds.isEmpty() || random.nextInt(3) != 0) {
+                    long id = random.nextInt(50);
+                    double bound = random.nextInt(20);
+                    candidates.add(id, bound);
+                    ids.add(id);
+                    bounds.add(bound);
+
+                // Poll
+                } else {
+                    double bound = bounds.get(getIndex(bounds, true));
+                    assertEquals(bound, candidates.peekBound(), 0d);
+                    long id = candidates.poll();
+                    boolean found = false;
+                    for (int j = 0; j < ids.size() && !found; j++) {
+                        if (ids.get(j) == id && bounds.get(j) == bound) {
+                            ids.remove(j);
+                            bounds.remove(j);
+                            found = true;
+                        }
+                    }
+                    assertTrue(found);
+                }
+
+                // Compare minimum
+                assertEquals(ids.size(), candidates.size());
+                if (bounds.isEmpty()) {
+                    assertEquals(-1, candidates.getMinimalIdentifier());
+                } else {
+                    double minimum = bounds.get(getIndex(bounds, false));
+                    assertEquals(minimum, candidates.getMinimalBound(), 0d);
+                    boolean found = false;
+                    for (int j = 0; j < ids.size() && !found; j++) {
+                        found = ids.get(j) == candidates.getMinimalIdentifier() && bounds.get(j) == minimum;
+                    }
+                    assertTrue(found);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnranked() {
+        FLASHPruningCandidates candidates = new FLASHPruningCandidates();
+        candidates.add(0, Double.NaN);
+        candidates.add(1, 1d);
+        assertEquals(2, candidates.size());
+        assertFalse(candidates.hasNext(2d));
+        assertTrue(candidates.hasNext(1d));
+        assertEquals(1, candidates.poll());
+        assertFalse(candidates.isEmpty());
+        assertEquals(0, candidates.getUnranked().get(0));
+    }
+}
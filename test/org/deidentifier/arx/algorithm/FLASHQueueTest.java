@@ -0,0 +1,144 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.junit.Test;
+
+/**
+ * Tests FLASHQueue against sorting by key and identifier
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHQueueTest {
+
+    /**
+     * Returns keys which are given by an array
+     *
+     * @param keys
+     * @return
+     */
+    private static FLASHStrategyKeys getKeys(final long[] keys) {
+        return new FLASHStrategyKeys(new SolutionSpace(new int[] { 0 }, new int[] { 0 }), null) {
+            @Override
+            public long getKey(long id) {
+                return keys[(int) id];
+            }
+        };
+    }
+
+    @Test
+    public void testDuplicates() {
+        FLASHQueue queue = new FLASHQueue(getKeys(new long[] { 2, 1, 1 }), 1);
+        queue.add(0);
+        queue.add(2);
+        queue.add(0);
+        queue.add(1);
+        queue.add(2);
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.poll());
+        assertEquals(2, queue.poll());
+
+        // Can be added again after it has been removed
+        queue.add(1);
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.poll());
+        assertEquals(0, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        FLASHQueue queue = new FLASHQueue(getKeys(new long[] { 0, 1 }), 16);
+        queue.add(0);
+        queue.add(1);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.toArray().length);
+        queue.add(1);
+        assertEquals(1, queue.poll());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEmpty() {
+        new FLASHQueue(getKeys(new long[0]), 16).poll();
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(0xdeadbeef);
+        for (int run = 0; run < 20; run++) {
+
+            // Keys with many ties
+            final long[] keys = new long[1000];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextInt(50);
+            }
+            FLASHQueue queue = new FLASHQueue(getKeys(keys), 4);
+
+            // Add, partially interleaved with polling, and compare with a sorted list
+            Set<Long> expected = new LinkedHashSet<Long>();
+            List<Long> actual = new ArrayList<Long>();
+            for (int i = 0; i < 3000; i++) {
+                long id = random.nextInt(keys.length);
+                queue.add(id);
+                expected.add(id);
+                if (random.nextInt(10) == 0) {
+                    long head = queue.poll();
+                    assertEquals(getSorted(expected, keys).get(0).longValue(), head);
+                    expected.remove(head);
+                }
+                assertEquals(expected.size(), queue.size());
+            }
+            while (!queue.isEmpty()) {
+                actual.add(queue.poll());
+            }
+            assertEquals(getSorted(expected, keys), actual);
+        }
+    }
+
+    /**
+     * Sorts the identifiers by key and identifier
+     *
+     * @param ids
+     * @param keys
+     * @return
+     */
+    private static List<Long> getSorted(Set<Long> ids, final long[] keys) {
+        List<Long> result = new ArrayList<Long>(ids);
+        Collections.sort(result, new Comparator<Long>() {
+            @Override
+            public int compare(Long o1, Long o2) {
+                int cmp = Long.compare(keys[o1.intValue()], keys[o2.intValue()]);
+                return cmp != 0 ? cmp : Long.compare(o1, o2);
+            }
+        });
+        return result;
+    }
+}
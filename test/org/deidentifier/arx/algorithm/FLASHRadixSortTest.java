@@ -0,0 +1,107 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests FLASHRadixSort against Arrays.sort
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHRadixSortTest {
+
+    @Test
+    public void testSmall() {
+        check(new int[0], 1);
+        check(new int[] { 7 }, 1);
+        check(new int[] { 0, 0, 0 }, 1);
+        check(new int[] { 3, 1, 2, 1, 3 }, 1);
+    }
+
+    @Test
+    public void testSequential() {
+        Random random = new Random(0xdeadbeef);
+        for (int bound : new int[] { 2, 300, 70000, Integer.MAX_VALUE }) {
+            check(getKeys(random, 10000, bound), 1);
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        int chunk = FLASHRadixSort.MIN_PARALLEL_CHUNK_SIZE;
+        try {
+            FLASHRadixSort.MIN_PARALLEL_CHUNK_SIZE = 1000;
+            Random random = new Random(0xdeadbeef);
+            for (int bound : new int[] { 2, 300, 70000, Integer.MAX_VALUE }) {
+                check(getKeys(random, 10007, bound), 4);
+            }
+        } finally {
+            FLASHRadixSort.MIN_PARALLEL_CHUNK_SIZE = chunk;
+        }
+    }
+
+    /**
+     * Sorts the keys with the original positions as values and compares the
+     * result with a stable sort of key and position
+     *
+     * @param keys
+     * @param threads
+     */
+    private static void check(int[] keys, int threads) {
+
+        // Expected: key in the upper, position in the lower half
+        long[] expected = new long[keys.length];
+        long[] values = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            expected[i] = ((long) keys[i] << 32) | i;
+            values[i] = i;
+        }
+        Arrays.sort(expected);
+
+        // Actual
+        int[] sorted = keys.clone();
+        FLASHRadixSort.sort(sorted, values, threads);
+        long[] actual = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            actual[i] = ((long) sorted[i] << 32) | values[i];
+        }
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Returns random non-negative keys
+     *
+     * @param random
+     * @param size
+     * @param bound
+     * @return
+     */
+    private static int[] getKeys(Random random, int size, int bound) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt(bound);
+        }
+        return keys;
+    }
+}
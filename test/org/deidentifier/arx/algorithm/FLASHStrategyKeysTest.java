@@ -0,0 +1,146 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.junit.Test;
+
+import de.linearbits.jhpl.JHPLIterator.LongIterator;
+
+/**
+ * Tests FLASHStrategyKeys against sorting with the strategy
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHStrategyKeysTest {
+
+    /**
+     * Returns an array with the given length and value
+     *
+     * @param length
+     * @param value
+     * @return
+     */
+    private static int[] getLevels(int length, int value) {
+        int[] result = new int[length];
+        Arrays.fill(result, value);
+        return result;
+    }
+
+    /**
+     * Returns a strategy which orders transformations by descending identifiers
+     *
+     * @param solutionSpace
+     * @return
+     */
+    private static FLASHStrategy getStrategy(SolutionSpace solutionSpace) {
+        return new FLASHStrategy(solutionSpace, new GeneralizationHierarchy[0]) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            public int compare(long id1, long id2) {
+                return id1 > id2 ? -1 : (id1 == id2 ? 0 : 1);
+            }
+        };
+    }
+
+    /**
+     * Returns the transformations on the given level, sorted with the strategy
+     *
+     * @param solutionSpace
+     * @param strategy
+     * @param level
+     * @return
+     */
+    private static List<Long> getLevel(SolutionSpace solutionSpace, final FLASHStrategy strategy, int level) {
+        List<Long> result = new ArrayList<Long>();
+        for (LongIterator iter = solutionSpace.unsafeGetLevel(level); iter.hasNext();) {
+            result.add(iter.next());
+        }
+        Collections.sort(result, new Comparator<Long>() {
+            @Override
+            public int compare(Long id1, Long id2) {
+                return strategy.compare(id1.longValue(), id2.longValue());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Checks the keys of the given levels
+     *
+     * @param solutionSpace
+     * @param levels
+     */
+    private static void check(SolutionSpace solutionSpace, int... levels) {
+        FLASHStrategy strategy = getStrategy(solutionSpace);
+        FLASHStrategyKeys keys = new FLASHStrategyKeys(solutionSpace, strategy);
+        for (int repetition = 0; repetition < 2; repetition++) {
+            for (int level : levels) {
+                List<Long> expected = getLevel(solutionSpace, strategy, level);
+                for (int rank = 0; rank < expected.size(); rank++) {
+                    assertEquals(((long) level << 32) | rank, keys.getKey(expected.get(rank)));
+                }
+
+                // Sorting
+                long[] ids = new long[expected.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[ids.length - 1 - i] = expected.get(i);
+                }
+                keys.sort(ids, 1);
+                for (int i = 0; i < ids.length; i++) {
+                    assertEquals(expected.get(i).longValue(), ids[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEviction() {
+        int size = FLASHStrategyKeys.MAX_RANKED_SIZE;
+        FLASHStrategyKeys.MAX_RANKED_SIZE = 10;
+        try {
+            check(new SolutionSpace(new int[] { 0, 0, 0 }, new int[] { 3, 3, 3 }), 1, 2, 3, 2, 1);
+        } finally {
+            FLASHStrategyKeys.MAX_RANKED_SIZE = size;
+        }
+    }
+
+    @Test
+    public void testLarge() {
+
+        // 2^32 transformations
+        SolutionSpace solutionSpace = new SolutionSpace(new int[32], getLevels(32, 1));
+        assertTrue(solutionSpace.getSize() > Integer.MAX_VALUE);
+        check(solutionSpace, 1, 2);
+    }
+
+    @Test
+    public void testSmall() {
+        check(new SolutionSpace(new int[] { 0, 0, 0 }, new int[] { 2, 3, 1 }), 0, 1, 2, 3, 4, 5, 6);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.junit.Test;
+
+import cern.colt.list.LongArrayList;
+import de.linearbits.jhpl.JHPLIterator.LongIterator;
+
+/**
+ * Tests FLASHSuccessors against the successors of the solution space
+ *
+ * @author Fabian Prasser
+ */
+public class FLASHSuccessorsTest {
+
+    /**
+     * Returns keys which order transformations within a level pseudo-randomly
+     *
+     * @param solutionSpace
+     * @return
+     */
+    private static FLASHStrategyKeys getKeys(final SolutionSpace solutionSpace) {
+        return new FLASHStrategyKeys(solutionSpace, null) {
+            @Override
+            public long getKey(long id) {
+                return ((long) solutionSpace.getTransformation(id).getLevel() << 32) | ((id * 0x9E3779B1L) & 0x7FFFFFFFL);
+            }
+        };
+    }
+
+    /**
+     * Compares the successors of all transformations on the given level
+     *
+     * @param solutionSpace
+     * @param keys
+     * @param successors
+     * @param level
+     */
+    private static void check(SolutionSpace solutionSpace, FLASHStrategyKeys keys, FLASHSuccessors successors, int level) {
+        for (LongIterator iter = solutionSpace.unsafeGetLevel(level); iter.hasNext();) {
+            long id = iter.next();
+
+            // Same successors
+            LongArrayList expected = solutionSpace.getTransformation(id).getSuccessors();
+            long[] actual = new long[successors.size(id)];
+            for (int i = 0; i < actual.length; i++) {
+                actual[i] = successors.get(id, i);
+            }
+            long[] sorted = new long[expected.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = expected.getQuick(i);
+            }
+            Arrays.sort(sorted);
+            long[] copy = actual.clone();
+            Arrays.sort(copy);
+            assertTrue(Arrays.equals(sorted, copy));
+
+            // In order
+            for (int i = 1; i < actual.length; i++) {
+                assertTrue(keys.compare(actual[i - 1], actual[i]) < 0);
+            }
+        }
+    }
+
+    /**
+     * Compares the successors of all transformations
+     *
+     * @param solutionSpace
+     * @param threads
+     */
+    private static void check(SolutionSpace solutionSpace, int threads) {
+        FLASHStrategyKeys keys = getKeys(solutionSpace);
+        FLASHSuccessors successors = new FLASHSuccessors(solutionSpace, keys, threads);
+        int top = solutionSpace.getTop().getLevel();
+        for (int level = 0; level <= top; level++) {
+            check(solutionSpace, keys, successors, level);
+        }
+
+        // Top has no successors
+        assertEquals(0, successors.size(solutionSpace.getTop().getIdentifier()));
+    }
+
+    @Test
+    public void testCached() {
+        long size = FLASHSuccessors.MAX_PRECOMPUTED_SIZE;
+        FLASHSuccessors.MAX_PRECOMPUTED_SIZE = 0;
+        try {
+            check(new SolutionSpace(new int[] { 0, 0, 0 }, new int[] { 2, 3, 1 }), 1);
+        } finally {
+            FLASHSuccessors.MAX_PRECOMPUTED_SIZE = size;
+        }
+    }
+
+    @Test
+    public void testParallel() {
+
+        // The middle level is large enough to be sorted in chunks
+        SolutionSpace solutionSpace = new SolutionSpace(new int[8], new int[] { 4, 4, 4, 4, 4, 4, 4, 4 });
+        FLASHStrategyKeys keys = getKeys(solutionSpace);
+        check(solutionSpace, keys, new FLASHSuccessors(solutionSpace, keys, 4), 16);
+    }
+
+    @Test
+    public void testPrecomputed() {
+        check(new SolutionSpace(new int[] { 0, 0, 0 }, new int[] { 2, 3, 1 }), 1);
+    }
+}
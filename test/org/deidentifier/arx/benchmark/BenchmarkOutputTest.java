@@ -0,0 +1,174 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests writing and reading the output of experiments
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkOutputTest {
+
+    /** Folder */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Loads a specification which writes to the given output and has the given further lines
+     *
+     * @param output
+     * @param lines
+     * @return
+     * @throws IOException
+     */
+    private BenchmarkSpec load(File output, String... lines) throws IOException {
+        File file = folder.newFile();
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            writer.println("output = " + output.getPath().replace('\\', '/'));
+            for (String line : lines) {
+                writer.println(line);
+            }
+        } finally {
+            writer.close();
+        }
+        return BenchmarkSpec.load(file);
+    }
+
+    /**
+     * Returns a specification in the layout of the quality experiment
+     *
+     * @param output
+     * @return
+     * @throws IOException
+     */
+    private BenchmarkSpec loadQuality(File output) throws IOException {
+        return load(output,
+                    "datasets = adult, cup",
+                    "models = UNIQUENESS_PITMAN, K_ANONYMITY",
+                    "thresholds.K_ANONYMITY = 5",
+                    "metrics = ENTROPY, LOSS",
+                    "measures = time, utility",
+                    "keys = Dataset, Metric",
+                    "pivot = Threshold, Model",
+                    "labels.Metric = Model",
+                    "labels.UNIQUENESS_PITMAN = uniqueness",
+                    "labels.K_ANONYMITY = anonymity");
+    }
+
+    /**
+     * Returns a map with the given measure and value
+     *
+     * @param measure
+     * @param value
+     * @return
+     */
+    private static Map<String, Double> getValues(String measure, double value) {
+        Map<String, Double> values = new HashMap<String, Double>();
+        values.put(measure, value);
+        return values;
+    }
+
+    @Test
+    public void testHeader() throws IOException {
+
+        // Without pivot
+        BenchmarkSpec spec = load(new File(folder.getRoot(), "test.csv"),
+                                  "datasets = adult",
+                                  "measures = time, risks",
+                                  "populations = USA: 1000, Berlin: 100");
+        String[][] header = new BenchmarkOutput(spec).getHeader();
+        assertArrayEquals(new String[] { "", "time", "SU", "PU (USA)", "PU (Berlin)" }, header[0]);
+        assertArrayEquals(new String[] { "Dataset", "Value", "Value", "Value", "Value" }, header[1]);
+
+        // With pivot
+        header = new BenchmarkOutput(loadQuality(new File(folder.getRoot(), "test.csv"))).getHeader();
+        assertArrayEquals(new String[] { "", "", "time-(0.01)-uniqueness", "time-(5)-anonymity",
+                                         "utility-(0.01)-uniqueness", "utility-(5)-anonymity" }, header[0]);
+        assertArrayEquals(new String[] { "Dataset", "Model", "Value", "Value", "Value", "Value" }, header[1]);
+    }
+
+    @Test
+    public void testMismatch() throws IOException {
+        File file = new File(folder.getRoot(), "test.csv");
+        new BenchmarkOutput(load(file, "datasets = adult", "measures = time")).write();
+        try {
+            new BenchmarkOutput(load(file, "datasets = adult", "measures = checks")).read();
+        } catch (IOException e) {
+            return;
+        }
+        throw new AssertionError("Header matches");
+    }
+
+    @Test
+    public void testPivot() throws IOException {
+        File file = new File(folder.getRoot(), "test.csv");
+        BenchmarkOutput output = new BenchmarkOutput(loadQuality(file));
+        String[] pitman = new String[] { "0.01", "UNIQUENESS_PITMAN" };
+        String[] anonymity = new String[] { "5", "K_ANONYMITY" };
+        String[] keys = new String[] { "adult", "Loss" };
+
+        // Runs which differ in the pivot columns only are written to the same line
+        output.add(keys, anonymity, getValues("utility", 0.5d));
+        assertFalse(output.isDone(keys, pitman));
+        assertTrue(output.isDone(keys, anonymity));
+        output.add(keys, pitman, getValues("time", 1d));
+        assertTrue(output.isDone(keys, pitman));
+        assertEquals(1, output.getLines().size());
+        assertArrayEquals(new String[] { "adult", "Loss", "1.0", "NaN", "NaN", "0.5" }, output.getLines().get(0));
+        output.add(new String[] { "adult", "Entropy" }, anonymity, getValues("time", 2d));
+        assertEquals(2, output.getLines().size());
+        assertArrayEquals(new String[] { "adult", "Entropy", "", "2.0", "", "NaN" }, output.getLines().get(1));
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        File file = new File(folder.getRoot(), "results/test.csv");
+        BenchmarkOutput output = new BenchmarkOutput(loadQuality(file));
+        String[] anonymity = new String[] { "5", "K_ANONYMITY" };
+        output.add(new String[] { "adult", "Entropy" }, anonymity, getValues("time", 2d));
+        output.add(new String[] { "cup", "Entropy" }, anonymity, getValues("time", 3d));
+        output.write();
+
+        // Read, including trailing empty cells
+        BenchmarkOutput read = new BenchmarkOutput(loadQuality(file));
+        read.read();
+        assertEquals(2, read.getLines().size());
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(output.getLines().get(i), read.getLines().get(i));
+        }
+        assertTrue(read.isDone(new String[] { "cup", "Entropy" }, anonymity));
+        assertFalse(read.isDone(new String[] { "cup", "Entropy" }, new String[] { "0.01", "UNIQUENESS_PITMAN" }));
+        assertFalse(read.isDone(new String[] { "cup", "Loss" }, anonymity));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.deidentifier.arx.benchmark.BenchmarkSpec.Run;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the experiments of BenchmarkRunner and their outputs
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkRunnerTest {
+
+    /** Folder */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Returns all experiments
+     *
+     * @return
+     */
+    private static File[] getExperiments() {
+        File[] files = new File("experiments").listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".properties");
+            }
+        });
+        assertTrue(files != null && files.length > 0);
+        return files;
+    }
+
+    /**
+     * Asserts that all runs of the given experiment are contained in its output
+     *
+     * @param name
+     * @throws IOException
+     */
+    private static void assertDone(String name) throws IOException {
+        BenchmarkSpec spec = BenchmarkSpec.load(new File("experiments", name));
+        BenchmarkOutput output = new BenchmarkOutput(spec);
+        output.read();
+        for (Run run : BenchmarkRunner.getRuns(spec)) {
+            assertTrue(run.toString(), output.isDone(run.getKeys(spec.getKeys()), run.getValues(spec.getPivot())));
+        }
+    }
+
+    @Test
+    public void testExperiments() throws IOException {
+
+        // All experiments are valid and match the layout of previous results
+        for (File file : getExperiments()) {
+            BenchmarkSpec spec = BenchmarkSpec.load(file);
+            assertFalse(file.getName(), BenchmarkRunner.getRuns(spec).isEmpty());
+            new BenchmarkOutput(spec).read();
+        }
+    }
+
+    @Test
+    public void testKeys() throws IOException {
+        BenchmarkSpec spec = BenchmarkSpec.load(new File("experiments", "scalability-rows.properties"));
+        assertArrayEquals(new String[] { BenchmarkSpec.DATASET, BenchmarkSpec.ROWS, BenchmarkSpec.COLUMNS }, spec.getKeys());
+        Map<String, int[]> sizes = new HashMap<String, int[]>();
+        for (String dataset : new String[] { "adult", "cup", "fars", "atus", "ihis" }) {
+            sizes.put(dataset, new int[] { 30162, 9 });
+        }
+
+        // Rows and columns are written as numbers of records and columns
+        List<Run> runs = BenchmarkRunner.getRuns(spec);
+        assertArrayEquals(new String[] { "adult", "3016", "9" }, BenchmarkRunner.getKeys(spec, runs.get(0), sizes));
+        assertArrayEquals(new String[] { "adult", "30162", "9" }, BenchmarkRunner.getKeys(spec, runs.get(19), sizes));
+        spec = BenchmarkSpec.load(new File("experiments", "scalability-columns.properties"));
+        runs = BenchmarkRunner.getRuns(spec);
+        assertArrayEquals(new String[] { "adult", "30162", "3" }, BenchmarkRunner.getKeys(spec, runs.get(0), sizes));
+    }
+
+    @Test
+    public void testResults() throws IOException {
+        assertDone("quality.properties");
+        assertDone("residual.properties");
+        BenchmarkSpec spec = BenchmarkSpec.load(new File("experiments", "scalability-columns.properties"));
+        assertEquals(spec.getOutput(), BenchmarkSpec.load(new File("experiments", "scalability-rows.properties")).getOutput());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownToggle() throws IOException {
+        File file = folder.newFile();
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            writer.println("output = test.csv");
+            writer.println("datasets = adult");
+            writer.println("toggle.unknown = true");
+        } finally {
+            writer.close();
+        }
+        BenchmarkRunner.getRuns(BenchmarkSpec.load(file));
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Benchmark of methods for controlling population unqiueness with ARX
+ * Copyright 2016 - Fabian Prasser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+import org.deidentifier.arx.benchmark.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.benchmark.BenchmarkSetup.BenchmarkPrivacyModel;
+import org.deidentifier.arx.benchmark.BenchmarkSetup.BenchmarkUtilityMeasure;
+import org.deidentifier.arx.benchmark.BenchmarkSpec.Run;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests reading specifications and expanding them into runs
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkSpecTest {
+
+    /** Folder */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Loads a specification with the given lines
+     *
+     * @param lines
+     * @return
+     * @throws IOException
+     */
+    private BenchmarkSpec load(String... lines) throws IOException {
+        File file = folder.newFile();
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            for (String line : lines) {
+                writer.println(line);
+            }
+        } finally {
+            writer.close();
+        }
+        return BenchmarkSpec.load(file);
+    }
+
+    /**
+     * Asserts that loading a specification with the given lines fails
+     *
+     * @param lines
+     * @throws IOException
+     */
+    private void assertInvalid(String... lines) throws IOException {
+        try {
+            load(lines).getRuns();
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError("Specification is valid");
+    }
+
+    @Test
+    public void testDefaults() throws IOException {
+        BenchmarkSpec spec = load("output = results/test.csv", "datasets = adult");
+        assertEquals(new File("results/test.csv"), spec.getOutput());
+        assertArrayEquals(new String[] { BenchmarkSpec.DATASET }, spec.getKeys());
+        assertArrayEquals(new String[0], spec.getPivot());
+        assertEquals(2, spec.getMeasures().size());
+        assertEquals(1, spec.getRepetitions());
+        assertFalse(spec.isWarmup());
+        assertEquals(0L, spec.getProgress());
+
+        List<Run> runs = spec.getRuns();
+        assertEquals(1, runs.size());
+        Run run = runs.get(0);
+        assertEquals("adult", run.getDataset());
+        assertEquals(BenchmarkPrivacyModel.UNIQUENESS_PITMAN, run.getModel());
+        assertEquals(0.01d, run.getThreshold(), 0d);
+        assertEquals(BenchmarkUtilityMeasure.LOSS, run.getMetric());
+        assertEquals(1d, run.getOutliers(), 0d);
+        assertEquals(1d, run.getRows(), 0d);
+        assertEquals(Integer.MAX_VALUE, run.getColumns());
+        assertEquals(Long.MAX_VALUE, run.getBudget());
+        assertEquals(BenchmarkAlgorithm.FLASH, run.getAlgorithm());
+        assertEquals(1, run.getThreads());
+        assertTrue(run.getToggles().isEmpty());
+    }
+
+    @Test
+    public void testInvalid() throws IOException {
+        assertInvalid("datasets = adult");
+        assertInvalid("output = test.csv");
+        assertInvalid("output = test.csv", "datasets = adult", "rows = 1.5");
+        assertInvalid("output = test.csv", "datasets = adult", "threads = 0");
+        assertInvalid("output = test.csv", "datasets = adult", "repetitions = 0");
+        assertInvalid("output = test.csv", "datasets = adult", "measures = groupify");
+        assertInvalid("output = test.csv", "datasets = adult", "populations = USA");
+    }
+
+    @Test
+    public void testKeys() throws IOException {
+
+        // Varying dimensions are keys by default
+        BenchmarkSpec spec = load("output = test.csv", "datasets = adult", "thresholds = 0.01, 0.05", "toggle.polygamma = false, true");
+        assertArrayEquals(new String[] { BenchmarkSpec.DATASET, BenchmarkSpec.THRESHOLD, "polygamma" }, spec.getKeys());
+        assertArrayEquals(new String[] { "adult", "0.05", "true" }, spec.getRuns().get(3).getKeys(spec.getKeys()));
+
+        // Labels of enums are used as keys
+        spec = load("output = test.csv", "datasets = adult", "keys = Dataset, Model, Metric, Algorithm");
+        assertArrayEquals(new String[] { "adult", "p-uniqueness (pitman)", "Loss", "FLASH" }, spec.getRuns().get(0).getKeys(spec.getKeys()));
+        assertArrayEquals(new String[] { "adult", "UNIQUENESS_PITMAN", "LOSS", "FLASH" }, spec.getRuns().get(0).getValues(spec.getKeys()));
+
+        // Explicit keys must contain all varying dimensions
+        assertInvalid("output = test.csv", "datasets = adult", "thresholds = 0.01, 0.05", "keys = Dataset");
+        assertInvalid("output = test.csv", "datasets = adult", "keys = Dataset, Unknown");
+    }
+
+    @Test
+    public void testMatrix() throws IOException {
+        BenchmarkSpec spec = load("output = test.csv",
+                                  "datasets = adult, cup",
+                                  "models = UNIQUENESS_PITMAN, K_ANONYMITY",
+                                  "thresholds = 0.01, 0.05",
+                                  "thresholds.K_ANONYMITY = 5",
+                                  "columns.cup = 3",
+                                  "toggle.lower-bound = false, true");
+        List<Run> runs = spec.getRuns();
+
+        // 2 thresholds and 1 threshold per dataset, times 2 toggles
+        assertEquals(12, runs.size());
+        for (int i = 0; i < runs.size(); i++) {
+            assertEquals(i, runs.get(i).getIndex());
+        }
+
+        // The last dimension changes fastest
+        assertEquals("adult", runs.get(0).getDataset());
+        assertEquals(0.01d, runs.get(0).getThreshold(), 0d);
+        assertFalse(runs.get(0).getToggles().get("lower-bound"));
+        assertTrue(runs.get(1).getToggles().get("lower-bound"));
+        assertEquals(0.05d, runs.get(2).getThreshold(), 0d);
+        assertEquals(BenchmarkPrivacyModel.K_ANONYMITY, runs.get(4).getModel());
+        assertEquals(5d, runs.get(4).getThreshold(), 0d);
+        assertEquals(Integer.MAX_VALUE, runs.get(4).getColumns());
+        assertEquals("cup", runs.get(6).getDataset());
+        assertEquals(3, runs.get(6).getColumns());
+    }
+
+    @Test
+    public void testPivot() throws IOException {
+        BenchmarkSpec spec = load("output = test.csv",
+                                  "datasets = adult",
+                                  "models = UNIQUENESS_PITMAN, K_ANONYMITY",
+                                  "thresholds.K_ANONYMITY = 5",
+                                  "metrics = ENTROPY, LOSS",
+                                  "pivot = Threshold, Model",
+                                  "labels.K_ANONYMITY = anonymity");
+
+        // Pivot columns are no keys
+        assertArrayEquals(new String[] { BenchmarkSpec.DATASET, BenchmarkSpec.METRIC }, spec.getKeys());
+        assertArrayEquals(new String[] { BenchmarkSpec.THRESHOLD, BenchmarkSpec.MODEL }, spec.getPivot());
+        assertArrayEquals(new String[] { "5", "K_ANONYMITY" }, spec.getRuns().get(2).getValues(spec.getPivot()));
+        assertEquals("anonymity", spec.getLabel("K_ANONYMITY", null));
+        assertEquals("(5)", spec.getLabel("5", "(5)"));
+
+        // Pivot columns must be dimensions and must not be keys
+        assertInvalid("output = test.csv", "datasets = adult", "pivot = Unknown");
+        assertInvalid("output = test.csv", "datasets = adult", "keys = Dataset, Model", "pivot = Model");
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.criteria;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyDistribution;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifySuppressionIndex;
+import org.deidentifier.arx.risk.RiskModelHistogram;
+import org.junit.Test;
+
+import com.carrotsearch.hppc.IntIntOpenHashMap;
+
+/**
+ * Tests the search of RiskBasedCriterion on a suppression index against suppressing the smallest
+ * classes one by one, which is the order in which HashGroupifyDistribution suppresses classes
+ *
+ * @author Fabian Prasser
+ */
+public class RiskBasedCriterionTest {
+
+    /**
+     * A criterion which limits the fraction of records in classes of size one, decided on histograms
+     *
+     * @author Fabian Prasser
+     */
+    private static class Uniqueness extends RiskBasedCriterion {
+
+        /** SVUID */
+        private static final long serialVersionUID = 1L;
+        /** Whether the criterion can be decided on histograms */
+        private final boolean     histogram;
+
+        /**
+         * Creates a new instance
+         * @param threshold
+         * @param histogram
+         */
+        private Uniqueness(double threshold, boolean histogram) {
+            super(true, false, threshold);
+            this.histogram = histogram;
+        }
+
+        @Override
+        public Uniqueness clone() {
+            return new Uniqueness(getRiskThreshold(), histogram);
+        }
+
+        @Override
+        protected boolean isFulfilled(HashGroupifyDistribution distribution) {
+            return isFulfilled(distribution.getHistogram());
+        }
+
+        @Override
+        protected boolean isFulfilled(RiskModelHistogram histogram) {
+            return getUniqueness(histogram.getHistogram()) <= getRiskThreshold();
+        }
+
+        @Override
+        protected boolean isHistogramBased() {
+            return histogram;
+        }
+    }
+
+    /**
+     * Returns the fraction of records in classes of size one
+     *
+     * @param histogram
+     * @return
+     */
+    private static double getUniqueness(int[] histogram) {
+        long records = 0;
+        long uniques = 0;
+        for (int i = 0; i < histogram.length; i += 2) {
+            records += (long) histogram[i] * histogram[i + 1];
+            uniques += histogram[i] == 1 ? histogram[i + 1] : 0;
+        }
+        return records == 0 ? 0d : (double) uniques / (double) records;
+    }
+
+    /**
+     * Returns the histogram after suppressing the k smallest of the given sorted classes
+     *
+     * @param classes
+     * @param k
+     * @return
+     */
+    private static int[] getHistogram(int[] classes, int k) {
+        IntIntOpenHashMap histogram = new IntIntOpenHashMap();
+        for (int i = k; i < classes.length; i++) {
+            histogram.putOrAdd(classes[i], 1, 1);
+        }
+        int[] result = new int[histogram.size() * 2];
+        int index = 0;
+        for (int i = 0; i < histogram.allocated.length; i++) {
+            if (histogram.allocated[i]) {
+                result[index++] = histogram.keys[i];
+                result[index++] = histogram.values[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Suppresses the smallest classes one by one, until the criterion is fulfilled or the limit is violated
+     *
+     * @param classes
+     * @param threshold
+     * @param limit
+     * @return
+     */
+    private static int getReferenceCut(int[] classes, double threshold, long limit) {
+        long suppressed = 0;
+        for (int k = 0; k < classes.length; k++) {
+            if (getUniqueness(getHistogram(classes, k)) <= threshold) {
+                return k;
+            }
+            suppressed += classes[k];
+            if (suppressed > limit) {
+                return k + 1;
+            }
+        }
+        return classes.length;
+    }
+
+    /**
+     * Returns random sorted class sizes
+     *
+     * @param random
+     * @return
+     */
+    private static int[] getClasses(Random random) {
+        int[] classes = new int[1 + random.nextInt(200)];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = random.nextInt(3) == 0 ? 1 : 1 + random.nextInt(20);
+        }
+        Arrays.sort(classes);
+        return classes;
+    }
+
+    @Test
+    public void testSearch() {
+        boolean binary = RiskBasedCriterion.USE_BINARY_SEARCH;
+        try {
+            Random random = new Random(0xdeadbeef);
+            for (int run = 0; run < 500; run++) {
+                int[] classes = getClasses(random);
+                double threshold = random.nextDouble() * 0.5d;
+                long limit = random.nextInt(classes.length * 5);
+                HashGroupifySuppressionIndex index = new HashGroupifySuppressionIndex(new RiskModelHistogram(getMap(classes)));
+                int expected = getReferenceCut(classes, threshold, limit);
+                RiskBasedCriterion.USE_BINARY_SEARCH = true;
+                assertEquals(expected, new Uniqueness(threshold, true).getCut(index, limit));
+                RiskBasedCriterion.USE_BINARY_SEARCH = false;
+                assertEquals(expected, new Uniqueness(threshold, true).getCut(index, limit));
+            }
+        } finally {
+            RiskBasedCriterion.USE_BINARY_SEARCH = binary;
+        }
+    }
+
+    @Test
+    public void testBudget() {
+        int evaluations = RiskBasedCriterion.MAX_EVALUATIONS;
+        try {
+            Random random = new Random(0xdeadbeef);
+            for (int budget = 1; budget < 5; budget++) {
+                RiskBasedCriterion.MAX_EVALUATIONS = budget;
+                for (int run = 0; run < 100; run++) {
+                    int[] classes = getClasses(random);
+                    double threshold = random.nextDouble() * 0.5d;
+                    long limit = random.nextInt(classes.length * 5);
+                    HashGroupifySuppressionIndex index = new HashGroupifySuppressionIndex(new RiskModelHistogram(getMap(classes)));
+
+                    // Either a cut which fulfills the criterion, or one which violates the limit
+                    int cut = new Uniqueness(threshold, true).getCut(index, limit);
+                    int reference = getReferenceCut(classes, threshold, limit);
+                    assertTrue(cut >= reference);
+                    assertTrue(getUniqueness(getHistogram(classes, cut)) <= threshold ||
+                               index.getNumSuppressedRecords(cut) > limit ||
+                               cut == classes.length);
+                }
+            }
+        } finally {
+            RiskBasedCriterion.MAX_EVALUATIONS = evaluations;
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNotHistogramBased() {
+        HashGroupifySuppressionIndex index = new HashGroupifySuppressionIndex(new RiskModelHistogram(getMap(new int[] { 1, 2 })));
+        new Uniqueness(0.1d, false).getCut(index, 10);
+    }
+
+    /**
+     * Returns a map from class sizes to counts
+     *
+     * @param classes
+     * @return
+     */
+    private static IntIntOpenHashMap getMap(int[] classes) {
+        IntIntOpenHashMap map = new IntIntOpenHashMap();
+        for (int size : classes) {
+            map.putOrAdd(size, 1, 1);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2016 Fabian Prasser, Florian Kohlmayer and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.groupify;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests HashGroupifySuppressionIndex against suppressing the smallest classes one by one
+ *
+ * @author Fabian Prasser
+ */
+public class HashGroupifySuppressionIndexTest {
+
+    /**
+     * Returns a histogram of the form [size, count, size, count, ...]
+     *
+     * @param classes
+     * @return
+     */
+    private static int[] getHistogram(int[] classes) {
+        Map<Integer, Integer> histogram = getHistogram(classes, 0);
+        int[] result = new int[histogram.size() * 2];
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : histogram.entrySet()) {
+            result[index++] = entry.getKey();
+            result[index++] = entry.getValue();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the histogram of the given classes, sorted by size, after suppressing the k smallest ones
+     *
+     * @param classes
+     * @param k
+     * @return
+     */
+    private static Map<Integer, Integer> getHistogram(int[] classes, int k) {
+        Map<Integer, Integer> histogram = new HashMap<Integer, Integer>();
+        for (int i = k; i < classes.length; i++) {
+            Integer count = histogram.get(classes[i]);
+            histogram.put(classes[i], count == null ? 1 : count + 1);
+        }
+        return histogram;
+    }
+
+    /**
+     * Converts a histogram of the form [size, count, size, count, ...]
+     *
+     * @param histogram
+     * @return
+     */
+    private static Map<Integer, Integer> toMap(int[] histogram) {
+        Map<Integer, Integer> result = new HashMap<Integer, Integer>();
+        for (int i = 0; i < histogram.length; i += 2) {
+            result.put(histogram[i], histogram[i + 1]);
+        }
+        return result;
+    }
+
+    @Test
+    public void testEmpty() {
+        HashGroupifySuppressionIndex index = new HashGroupifySuppressionIndex(new int[0]);
+        assertEquals(0, index.getNumClasses());
+        assertEquals(0, index.getNumRecords(0));
+        assertEquals(0, index.getMaxCut(10));
+        assertEquals(0, index.getHistogram(0).getHistogram().length);
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(0xdeadbeef);
+        for (int run = 0; run < 50; run++) {
+
+            // Classes, ascending by size, as suppressed by the index
+            int[] classes = new int[1 + random.nextInt(200)];
+            for (int i = 0; i < classes.length; i++) {
+                classes[i] = 1 + random.nextInt(random.nextBoolean() ? 5 : 100);
+            }
+            Arrays.sort(classes);
+            HashGroupifySuppressionIndex index = new HashGroupifySuppressionIndex(getHistogram(classes));
+            assertEquals(classes.length, index.getNumClasses());
+
+            // Compare each cut point with brute force
+            long suppressed = 0;
+            long total = 0;
+            for (int size : classes) {
+                total += size;
+            }
+            for (int k = 0; k <= classes.length; k++) {
+                Map<Integer, Integer> expected = getHistogram(classes, k);
+                assertEquals("k=" + k, expected, toMap(index.getHistogram(k).getHistogram()));
+                assertEquals("k=" + k, suppressed, index.getNumSuppressedRecords(k));
+                assertEquals("k=" + k, total - suppressed, index.getNumRecords(k));
+                assertEquals("k=" + k, classes.length - k, index.getNumClasses(k));
+                for (int size = 1; size <= 100; size++) {
+                    Integer count = expected.get(size);
+                    assertEquals("k=" + k + ", size=" + size, count == null ? 0 : count.intValue(), index.getNumClassesOfSize(size, k));
+                }
+                if (k < classes.length) {
+                    suppressed += classes[k];
+                }
+            }
+
+            // The largest cut which suppresses at most the given number of records
+            for (long records = 0; records <= total; records += 1 + random.nextInt(20)) {
+                int expected = 0;
+                long sum = 0;
+                while (expected < classes.length && sum + classes[expected] <= records) {
+                    sum += classes[expected++];
+                }
+                assertEquals("records=" + records, expected, index.getMaxCut(records));
+            }
+        }
+    }
+}